@@ -0,0 +1,87 @@
+package com._com.JourneeMondiale.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.security.Jwt.AuthTokenFilter;
+import com._com.JourneeMondiale.security.Jwt.JwtUtils;
+import com._com.JourneeMondiale.security.services.UserDetailsImpl;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Full {@link AuthTokenFilter} pass over mock servlet objects, as run for every API request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    // Protected route, and a public one that takes the fast path
+    @Param({"/api/events/my-registrations", "/api/events/upcoming"})
+    public String path;
+
+    // 0 disables the verified-token cache
+    @Param({"10000", "0"})
+    public int cacheMaxEntries;
+
+    private AuthTokenFilter filter;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtUtils jwtUtils = SecurityFixtures.jwtUtils(cacheMaxEntries);
+        User user = SecurityFixtures.user();
+        filter = SecurityFixtures.authTokenFilter(jwtUtils, SecurityFixtures.securityVersions(user));
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        token = jwtUtils.generateTokenFromUsername(userDetails.getUsername(), userDetails.toClaims());
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setCookies(new Cookie(SecurityFixtures.COOKIE_NAME, token));
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,191 @@
+package com._com.JourneeMondiale.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.payload.response.DonationStatistics;
+import com._com.JourneeMondiale.repository.DonationRepository;
+
+/**
+ * Donation statistics over a date range covering the whole table: the grouped
+ * aggregate of {@code DonationRepository.getTotalsByStatusBetween} against the
+ * previous approach, which loaded every donation of the range as an entity and
+ * streamed the list once per figure.
+ *
+ * Besides the timings, setup prints the bytes each approach allocates per call.
+ * H2 runs embedded here, so its own scan is counted too: both grow with the
+ * table, but the grouped query hands back three rows where the other builds an
+ * entity per donation. {@code -prof gc} reports the same as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DonationStatisticsBenchmark {
+
+    // As generated by Hibernate for the JPQL of getTotalsByStatusBetween
+    private static final String GROUPED = "select d1_0.status,count(d1_0.id),sum(d1_0.amount) from donations d1_0 "
+        + "where d1_0.created_at between ? and ? group by d1_0.status";
+
+    private static final String ENTITIES = "select d1_0.id,d1_0.amount,d1_0.created_at,d1_0.currency,d1_0.description,"
+        + "d1_0.donor_email,d1_0.donor_name,d1_0.payment_intent_id,d1_0.status from donations d1_0 "
+        + "where d1_0.created_at between ? and ?";
+
+    private static final String[] STATUSES = {"succeeded", "succeeded", "succeeded", "pending", "failed"};
+
+    @Param({"10000", "100000", "400000"})
+    public int rows;
+
+    private Connection connection;
+
+    private PreparedStatement grouped;
+
+    private PreparedStatement entities;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:donations;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table if exists donations");
+            ddl.execute("create table donations (id bigint generated by default as identity primary key, "
+                + "amount numeric(38,2) not null, created_at timestamp(6), currency varchar(3) not null, "
+                + "description varchar(255), donor_email varchar(255) not null, donor_name varchar(255) not null, "
+                + "payment_intent_id varchar(255) not null, status varchar(255) not null)");
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement("insert into donations (amount, created_at, currency, "
+                + "description, donor_email, donor_name, payment_intent_id, status) values (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setBigDecimal(1, BigDecimal.valueOf(500 + random.nextInt(20000), 2));
+                insert.setTimestamp(2, Timestamp.valueOf(start.plusMinutes(random.nextInt(2 * 365 * 24 * 60))));
+                insert.setString(3, "eur");
+                insert.setString(4, "Don " + i);
+                insert.setString(5, "donor" + random.nextInt(rows / 4 + 1) + "@example.org");
+                insert.setString(6, "Donor " + i);
+                insert.setString(7, "pi_" + i);
+                insert.setString(8, STATUSES[random.nextInt(STATUSES.length)]);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        grouped = connection.prepareStatement(GROUPED);
+        entities = connection.prepareStatement(ENTITIES);
+        for (PreparedStatement statement : List.of(grouped, entities)) {
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0)));
+            statement.setTimestamp(2, Timestamp.valueOf(start.plusYears(3)));
+        }
+
+        System.out.println();
+        System.out.printf("rows=%d  grouped query: %,d bytes/call  entities + streams: %,d bytes/call%n",
+            rows, allocatedBy(this::groupedQuery), allocatedBy(this::loadAndStream));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public DonationStatistics groupedQuery() throws SQLException {
+        List<DonationRepository.StatusTotals> totals = new ArrayList<>();
+        try (ResultSet resultSet = grouped.executeQuery()) {
+            while (resultSet.next()) {
+                totals.add(new Totals(resultSet.getString(1), resultSet.getLong(2), resultSet.getBigDecimal(3)));
+            }
+        }
+        return DonationStatistics.from(totals);
+    }
+
+    // What getDonationStatistics(start, end) did before: findByCreatedAtBetween, then one stream per figure
+    @Benchmark
+    public Object[] loadAndStream() throws SQLException {
+        List<Donation> donations = new ArrayList<>();
+        try (ResultSet resultSet = entities.executeQuery()) {
+            while (resultSet.next()) {
+                Donation donation = new Donation(resultSet.getString(8), resultSet.getBigDecimal(2), resultSet.getString(4),
+                    resultSet.getString(7), resultSet.getString(6), resultSet.getString(5), resultSet.getString(9));
+                donation.setId(resultSet.getLong(1));
+                donation.setCreatedAt(resultSet.getTimestamp(3).toLocalDateTime());
+                donations.add(donation);
+            }
+        }
+        long totalCount = donations.stream().filter(d -> "succeeded".equals(d.getStatus())).count();
+        BigDecimal totalAmount = sum(donations, "succeeded");
+        return new Object[] {
+            totalCount, totalAmount, totalCount > 0 ? totalAmount.doubleValue() / totalCount : 0.0,
+            donations.stream().filter(d -> "succeeded".equals(d.getStatus())).count(),
+            donations.stream().filter(d -> "pending".equals(d.getStatus())).count(),
+            donations.stream().filter(d -> "failed".equals(d.getStatus())).count(),
+            sum(donations, "succeeded"), sum(donations, "pending"), sum(donations, "failed")};
+    }
+
+    private static BigDecimal sum(List<Donation> donations, String status) {
+        return donations.stream().filter(d -> status.equals(d.getStatus()))
+            .map(Donation::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static long allocatedBy(SqlCall call) throws SQLException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Once to load classes and compile the statement paths
+        call.run();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        call.run();
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    @FunctionalInterface
+    private interface SqlCall {
+        Object run() throws SQLException;
+    }
+
+    private record Totals(String status, long count, BigDecimal amount) implements DonationRepository.StatusTotals {
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+}
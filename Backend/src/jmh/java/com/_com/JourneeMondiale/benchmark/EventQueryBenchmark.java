@@ -0,0 +1,224 @@
+package com._com.JourneeMondiale.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Query shapes of {@code EventQueryRepositoryImpl} against a large synthetic events
+ * table in H2, with and without the indexes declared on {@code Event}. The plan of
+ * each query is printed at setup.
+ *
+ * The SQL is what Hibernate generates for the criteria query (see the show-sql
+ * output), so both can be compared directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventQueryBenchmark {
+
+    private static final String COLUMNS = "select e1_0.id,e1_0.name,e1_0.description,e1_0.location,e1_0.event_date,"
+        + "e1_0.registration_deadline,e1_0.max_participants,e1_0.current_participants,e1_0.event_type,"
+        + "e1_0.is_active,e1_0.created_at,e1_0.updated_at from events e1_0 ";
+
+    private static final String TYPE_AND_DATE_RANGE = COLUMNS
+        + "where e1_0.is_active and e1_0.event_type=? and e1_0.event_date>=? and e1_0.event_date<=? "
+        + "order by 9,5,1 fetch first ? rows only";
+
+    private static final String LOCATION_WITH_FREE_SPOTS = COLUMNS
+        + "where e1_0.is_active and lower(e1_0.location) like ? escape '\\' "
+        + "and coalesce(e1_0.current_participants,0)<e1_0.max_participants order by 5,1 fetch first ? rows only";
+
+    private static final String KEYSET_PAGE = COLUMNS
+        + "where e1_0.is_active and e1_0.event_date>=? and (e1_0.event_date>? or e1_0.id>?) "
+        + "order by 5,1 fetch first ? rows only";
+
+    private static final String LATEST_FIRST = COLUMNS
+        + "where e1_0.is_active order by 5 desc,1 desc fetch first ? rows only";
+
+    private static final String[] TYPES = {"RUN", "MARATHON", "WALK", "CONCERT", "GALA", "WORKSHOP", "SPORT", "TRAIL"};
+
+    private static final String[] CITIES = {
+        "Paris", "Lyon", "Marseille", "Toulouse", "Nantes", "Bordeaux", "Lille", "Rennes", "Strasbourg", "Orleans"};
+
+    private static final int PAGE = 21;
+
+    @Param({"200000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private Connection connection;
+
+    private PreparedStatement typeAndDateRange;
+
+    private PreparedStatement locationWithFreeSpots;
+
+    private PreparedStatement keysetPage;
+
+    private PreparedStatement latestFirst;
+
+    private LocalDateTime start;
+
+    @Setup
+    public void setUp() throws SQLException {
+        // H2 would otherwise hand back the previous result of an identical query on an unchanged table
+        connection = DriverManager.getConnection("jdbc:h2:mem:events" + indexed + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+        start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table if exists events");
+            ddl.execute("create table events (id bigint generated by default as identity primary key, "
+                + "name varchar(200) not null, description varchar(1000) not null, location varchar(100) not null, "
+                + "event_date timestamp(6) not null, registration_deadline timestamp(6) not null, "
+                + "max_participants integer not null, current_participants integer, event_type varchar(50) not null, "
+                + "is_active boolean not null, created_at timestamp(6) not null, updated_at timestamp(6))");
+        }
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement("insert into events (name, description, location, "
+                + "event_date, registration_deadline, max_participants, current_participants, event_type, is_active, "
+                + "created_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                LocalDateTime date = start.plusMinutes(random.nextInt(3 * 365 * 24 * 60));
+                int max = 50 + random.nextInt(200);
+                insert.setString(1, "Event " + i);
+                insert.setString(2, "Description " + i);
+                insert.setString(3, CITIES[random.nextInt(CITIES.length)] + " " + random.nextInt(20));
+                insert.setTimestamp(4, Timestamp.valueOf(date));
+                insert.setTimestamp(5, Timestamp.valueOf(date.minusDays(7)));
+                insert.setInt(6, max);
+                insert.setInt(7, random.nextInt(10) == 0 ? max : random.nextInt(max));
+                insert.setString(8, TYPES[random.nextInt(TYPES.length)]);
+                insert.setBoolean(9, random.nextInt(20) != 0);
+                insert.setTimestamp(10, Timestamp.valueOf(start));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        if (indexed) {
+            try (Statement ddl = connection.createStatement()) {
+                // Same as the @Index declarations on Event
+                ddl.execute("create index idx_events_date on events (event_date, id)");
+                ddl.execute("create index idx_events_deadline on events (registration_deadline, id)");
+                ddl.execute("create index idx_events_type_date on events (event_type, event_date, id)");
+                ddl.execute("analyze");
+            }
+        }
+
+        typeAndDateRange = connection.prepareStatement(TYPE_AND_DATE_RANGE);
+        typeAndDateRange.setString(1, "MARATHON");
+        typeAndDateRange.setTimestamp(2, Timestamp.valueOf(start.plusMonths(6)));
+        typeAndDateRange.setTimestamp(3, Timestamp.valueOf(start.plusMonths(9)));
+        typeAndDateRange.setInt(4, PAGE);
+
+        locationWithFreeSpots = connection.prepareStatement(LOCATION_WITH_FREE_SPOTS);
+        locationWithFreeSpots.setString(1, "nantes 1%");
+        locationWithFreeSpots.setInt(2, PAGE);
+
+        // A page from the middle of the table, where OFFSET would have to skip ~100k rows
+        keysetPage = connection.prepareStatement(KEYSET_PAGE);
+        keysetPage.setTimestamp(1, Timestamp.valueOf(start.plusMonths(18)));
+        keysetPage.setTimestamp(2, Timestamp.valueOf(start.plusMonths(18)));
+        keysetPage.setLong(3, 0);
+        keysetPage.setInt(4, PAGE);
+
+        latestFirst = connection.prepareStatement(LATEST_FIRST);
+        latestFirst.setInt(1, PAGE);
+
+        System.out.println();
+        explain("type + date range", typeAndDateRange);
+        explain("location prefix + free spots", locationWithFreeSpots);
+        explain("keyset page", keysetPage);
+        explain("latest first", latestFirst);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int typeAndDateRange() throws SQLException {
+        return count(typeAndDateRange);
+    }
+
+    @Benchmark
+    public int locationWithFreeSpots() throws SQLException {
+        return count(locationWithFreeSpots);
+    }
+
+    @Benchmark
+    public int keysetPage() throws SQLException {
+        return count(keysetPage);
+    }
+
+    @Benchmark
+    public int latestFirst() throws SQLException {
+        return count(latestFirst);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void explain(String label, PreparedStatement statement) throws SQLException {
+        // EXPLAIN takes the same parameters; H2 reports the chosen index and the rows it scanned
+        String sql = statement.toString();
+        sql = sql.substring(sql.indexOf(": ") + 2);
+        try (Statement explain = connection.createStatement();
+             ResultSet plan = explain.executeQuery("explain analyze " + inline(sql))) {
+            plan.next();
+            // Only the index used, the rows it scanned and whether it was read in order
+            StringBuilder summary = new StringBuilder();
+            for (String line : plan.getString(1).split("\n")) {
+                if (line.contains("/*")) {
+                    summary.append(' ').append(line.trim());
+                }
+            }
+            System.out.println("-- " + label + (indexed ? " (indexed):" : " (no index):") + summary);
+        }
+    }
+
+    // H2 prints prepared statements as "sql {1: value, 2: value}"; EXPLAIN needs the values inline
+    private static String inline(String printed) {
+        int parameters = printed.lastIndexOf(" {");
+        String sql = printed.substring(0, parameters);
+        String[] values = printed.substring(parameters + 2, printed.length() - 1).split(", (?=\\d+: )");
+        for (String value : values) {
+            sql = sql.replaceFirst("\\?", java.util.regex.Matcher.quoteReplacement(value.substring(value.indexOf(": ") + 2)));
+        }
+        return sql;
+    }
+}
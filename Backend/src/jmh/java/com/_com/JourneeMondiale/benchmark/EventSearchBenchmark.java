@@ -0,0 +1,81 @@
+package com._com.JourneeMondiale.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+import com._com.JourneeMondiale.service.EventTextIndex;
+
+/**
+ * Search latency of {@link EventTextIndex} over a catalog of synthetic events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "marathon", "course", "solidaire", "concert", "tournoi", "basket", "football", "gala", "fete",
+        "randonnee", "velo", "natation", "yoga", "atelier", "conference", "collecte", "benevoles",
+        "enfants", "famille", "quartier", "printemps", "automne", "nocturne", "relais", "caritatif"};
+
+    private static final String[] CITIES = {
+        "Paris", "Lyon", "Marseille", "Toulouse", "Nantes", "Bordeaux", "Lille", "Rennes", "Strasbourg", "Orleans"};
+
+    private static final String[] TYPES = {"RUN", "CONCERT", "SPORT", "WORKSHOP", "GALA"};
+
+    @Param({"20000"})
+    public int events;
+
+    // Exact word, typo, prefix while typing, several words
+    @Param({"marathon", "marthon", "rand", "course solidaire lyon"})
+    public String query;
+
+    private EventTextIndex index;
+
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        now = LocalDateTime.now();
+        index = new EventTextIndex();
+        for (long id = 1; id <= events; id++) {
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 20; w++) {
+                // Unique-ish tokens too, so the vocabulary is not just the word list
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                if (w % 5 == 0) {
+                    description.append("mot").append(random.nextInt(50_000)).append(' ');
+                }
+            }
+            LocalDateTime date = now.plusDays(random.nextInt(730) - 365);
+            index.put(new EventListingDTO(id,
+                WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id,
+                description.toString(), CITIES[random.nextInt(CITIES.length)], date, date.minusDays(7),
+                100, random.nextInt(100), TYPES[random.nextInt(TYPES.length)], true, now, null));
+        }
+    }
+
+    @Benchmark
+    public List<EventListingDTO> search() {
+        return index.search(query, 20, now);
+    }
+}
@@ -0,0 +1,90 @@
+package com._com.JourneeMondiale.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.security.Jwt.JwtUtils;
+import com._com.JourneeMondiale.security.services.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Cost of the individual steps of the JWT auth path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+
+    // Cache disabled: every call verifies the signature
+    private JwtUtils uncachedJwtUtils;
+
+    private User user;
+
+    private UserDetailsImpl userDetails;
+
+    private String token;
+
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = SecurityFixtures.jwtUtils(10_000);
+        uncachedJwtUtils = SecurityFixtures.jwtUtils(0);
+        user = SecurityFixtures.user();
+        userDetails = UserDetailsImpl.build(user);
+        token = jwtUtils.generateTokenFromUsername(userDetails.getUsername(), userDetails.toClaims());
+        claims = jwtUtils.getVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public String generateTokenFromUsername() {
+        return jwtUtils.generateTokenFromUsername(userDetails.getUsername(), userDetails.toClaims());
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtToken() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public Claims getVerifiedClaimsCached() {
+        return jwtUtils.getVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public Claims getVerifiedClaimsUncached() {
+        return uncachedJwtUtils.getVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildFromUser() {
+        return UserDetailsImpl.build(user);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildFromClaims() {
+        return UserDetailsImpl.build(claims);
+    }
+}
@@ -0,0 +1,72 @@
+package com._com.JourneeMondiale.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.security.PublicRoutes;
+import com._com.JourneeMondiale.security.Jwt.AuthTokenFilter;
+import com._com.JourneeMondiale.security.Jwt.JwtUtils;
+import com._com.JourneeMondiale.security.Jwt.TokenRevocationStore;
+import com._com.JourneeMondiale.security.Jwt.VerifiedTokenCache;
+import com._com.JourneeMondiale.security.services.InProcessUserInvalidationBus;
+import com._com.JourneeMondiale.security.services.SecurityVersionRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Builds the security beans by hand, wired the way Spring wires them, so the
+ * benchmarks measure the auth path without an application context or database.
+ */
+final class SecurityFixtures {
+
+    static final String COOKIE_NAME = "jwt";
+
+    // 512-bit key, same size as the production secret
+    static final String SECRET = Base64.getEncoder().encodeToString(
+        "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-1234".getBytes());
+
+    private SecurityFixtures() {
+    }
+
+    static JwtUtils jwtUtils(int cacheMaxEntries) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 24 * 60 * 60 * 1000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtCookie", COOKIE_NAME);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCache", new VerifiedTokenCache(cacheMaxEntries, new SimpleMeterRegistry()));
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    static SecurityVersionRegistry securityVersions(User user) {
+        SecurityVersionRegistry registry = new SecurityVersionRegistry();
+        ReflectionTestUtils.setField(registry, "invalidationBus", new InProcessUserInvalidationBus());
+        registry.init();
+        // Known version, so the filter never needs the repository
+        registry.record(user.getId(), user.getSecurityVersion());
+        return registry;
+    }
+
+    static AuthTokenFilter authTokenFilter(JwtUtils jwtUtils, SecurityVersionRegistry securityVersions) {
+        AuthTokenFilter filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "securityVersions", securityVersions);
+        ReflectionTestUtils.setField(filter, "publicRoutes", new PublicRoutes("/h2-ui", new SimpleMeterRegistry()));
+        // Empty store; init() is not called so no repository is needed
+        ReflectionTestUtils.setField(filter, "revocationStore", new TokenRevocationStore(null, new SimpleMeterRegistry(), 60000));
+        return filter;
+    }
+
+    static User user() {
+        User user = new User("marathon_runner", "runner@example.org", "Camille", "Dupont",
+            "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2lFZs5vXcYQ5o2rR7uYf1qK", "USER");
+        user.setId(4217L);
+        user.setCreatedAt(LocalDateTime.of(2025, 3, 14, 9, 30));
+        user.setUpdatedAt(LocalDateTime.of(2025, 6, 2, 18, 5));
+        user.setSecurityVersion(3L);
+        return user;
+    }
+}
@@ -2,8 +2,10 @@ package com._com.JourneeMondiale;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JourneeMondialeApplication {
 
 	public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com._com.JourneeMondiale.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
@@ -14,17 +15,27 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com._com.JourneeMondiale.exception.BusinessRuleException;
 import com._com.JourneeMondiale.model.User;
 import com._com.JourneeMondiale.payload.request.LoginRequest;
 import com._com.JourneeMondiale.payload.request.SignupRequest;
+import com._com.JourneeMondiale.payload.response.AvailabilityResponse;
 import com._com.JourneeMondiale.payload.response.MessageResponse;
 import com._com.JourneeMondiale.payload.response.UserInfoResponse;
 import com._com.JourneeMondiale.repository.UserRepository;
+import com._com.JourneeMondiale.security.SigninThrottle;
 import com._com.JourneeMondiale.security.Jwt.JwtUtils;
+import com._com.JourneeMondiale.security.Jwt.TokenRevocationStore;
 import com._com.JourneeMondiale.security.services.UserDetailsImpl;
+import com._com.JourneeMondiale.security.services.UserIdentityIndex;
+import com._com.JourneeMondiale.security.services.UserInvalidation;
+import com._com.JourneeMondiale.security.services.UserInvalidationBus;
 
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -42,8 +53,21 @@ public class AuthController {
   @Autowired
   JwtUtils jwtUtils;
 
+  @Autowired
+  TokenRevocationStore revocationStore;
+
+  @Autowired
+  UserIdentityIndex identityIndex;
+
+  @Autowired
+  UserInvalidationBus invalidationBus;
+
+  @Autowired
+  SigninThrottle signinThrottle;
+
   @PostMapping("/signin")
-  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+    signinThrottle.acquire(loginRequest.getUsername(), request.getRemoteAddr());
 
     Authentication authentication = authenticationManager
         .authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
@@ -72,14 +96,6 @@ public class AuthController {
 
   @PostMapping("/signup")
   public ResponseEntity<?> registerUser(@RequestBody SignupRequest signUpRequest) {
-    if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-      return ResponseEntity.badRequest().body(new MessageResponse("Error: Username is already taken!"));
-    }
-
-    if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-      return ResponseEntity.badRequest().body(new MessageResponse("Error: Email is already in use!"));
-    }
-
     // Create new user's account
     String role = "USER";
     if (signUpRequest.getRole() != null && !signUpRequest.getRole().isEmpty()) {
@@ -94,13 +110,34 @@ public class AuthController {
                          encoder.encode(signUpRequest.getPassword()),
                          role);
 
-    userRepository.save(user);
+    try {
+      user = userRepository.save(user);
+    } catch (DataIntegrityViolationException e) {
+      // The unique constraints decide; only a rejected signup looks up which one it hit. The index is not
+      // consulted here, it may not have heard yet of a user that another replica just inserted.
+      throw userRepository.existsByUsername(signUpRequest.getUsername()) ? usernameTaken() : emailTaken();
+    }
+    invalidationBus.publish(UserInvalidation.of(user));
 
     return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
   }
 
+  @GetMapping("/availability")
+  public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                @RequestParam(required = false) String email) {
+    Boolean usernameAvailable = username != null ? !identityIndex.isUsernameTaken(username) : null;
+    Boolean emailAvailable = email != null ? !identityIndex.isEmailTaken(email) : null;
+    return ResponseEntity.ok(new AvailabilityResponse(usernameAvailable, emailAvailable));
+  }
+
   @PostMapping("/signout")
-  public ResponseEntity<?> logoutUser() {
+  public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+    // Revoke the token itself, clearing the cookie alone leaves a copied token valid until it expires
+    Claims claims = jwtUtils.getVerifiedClaims(jwtUtils.getJwtFromCookies(request));
+    if (claims != null) {
+      revocationStore.revoke(claims.getId(), claims.getExpiration());
+    }
+
     ResponseCookie cookie = jwtUtils.getCleanJwtCookie();
     return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString())
         .body(new MessageResponse("You've been signed out!"));
@@ -125,4 +162,12 @@ public class AuthController {
       userDetails.getUpdatedAt()
     ));
   }
+
+  private static BusinessRuleException usernameTaken() {
+    return new BusinessRuleException("auth.username_taken", "Error: Username is already taken!");
+  }
+
+  private static BusinessRuleException emailTaken() {
+    return new BusinessRuleException("auth.email_taken", "Error: Email is already in use!");
+  }
 }
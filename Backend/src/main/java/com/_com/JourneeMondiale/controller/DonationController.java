@@ -3,24 +3,30 @@ package com._com.JourneeMondiale.controller;
 import java.math.BigDecimal;
 import java.security.Principal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import com._com.JourneeMondiale.exception.ResourceNotFoundException;
 import com._com.JourneeMondiale.model.Donation;
 import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.payload.response.DonationStatistics;
+import com._com.JourneeMondiale.payload.response.LiveDonationTotal;
+import com._com.JourneeMondiale.payload.response.MessageResponse;
+import com._com.JourneeMondiale.payload.response.RecentSupporter;
+import com._com.JourneeMondiale.service.DonationLiveTotals;
 import com._com.JourneeMondiale.service.DonationService;
 import com._com.JourneeMondiale.service.UserService;
 
@@ -35,6 +41,9 @@ public class DonationController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DonationLiveTotals donationLiveTotals;
+
     // Get all donations with pagination (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/")
@@ -44,74 +53,50 @@ public class DonationController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
-        try {
-            Page<Donation> donations = donationService.getAllDonations(page, size, sortBy, sortDir);
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        Page<Donation> donations = donationService.getAllDonations(page, size, sortBy, sortDir);
+        return ResponseEntity.ok(donations);
     }
 
     // Get all donations without pagination (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/all")
     public ResponseEntity<List<Donation>> getAllDonationsSimple() {
-        try {
-            List<Donation> donations = donationService.getAllDonations();
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Donation> donations = donationService.getAllDonations();
+        return ResponseEntity.ok(donations);
     }
 
     // Get donation by ID (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/{id}")
     public ResponseEntity<Donation> getDonationById(@PathVariable Long id) {
-        try {
-            Optional<Donation> donation = donationService.getDonationById(id);
-            return donation.map(ResponseEntity::ok)
-                          .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return donationService.getDonationById(id)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResourceNotFoundException("donation.not_found", "Donation not found with id: " + id));
     }
 
     // Get donation by payment intent ID (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/payment-intent/{paymentIntentId}")
     public ResponseEntity<Donation> getDonationByPaymentIntentId(@PathVariable String paymentIntentId) {
-        try {
-            Optional<Donation> donation = donationService.getDonationByPaymentIntentId(paymentIntentId);
-            return donation.map(ResponseEntity::ok)
-                          .orElse(ResponseEntity.notFound().build());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return donationService.getDonationByPaymentIntentId(paymentIntentId)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResourceNotFoundException("donation.not_found", "Donation not found for payment intent: " + paymentIntentId));
     }
 
     // Get donations by status (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Donation>> getDonationsByStatus(@PathVariable String status) {
-        try {
-            List<Donation> donations = donationService.getDonationsByStatus(status);
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Donation> donations = donationService.getDonationsByStatus(status);
+        return ResponseEntity.ok(donations);
     }
 
     // Get donations by donor email (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/donor/{email}")
     public ResponseEntity<List<Donation>> getDonationsByDonorEmail(@PathVariable String email) {
-        try {
-            List<Donation> donations = donationService.getDonationsByDonorEmail(email);
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Donation> donations = donationService.getDonationsByDonorEmail(email);
+        return ResponseEntity.ok(donations);
     }
 
     // Get recent donations (Admin only)
@@ -119,42 +104,52 @@ public class DonationController {
     @GetMapping("/recent")
     public ResponseEntity<List<Donation>> getRecentDonations(
             @RequestParam(defaultValue = "10") int limit) {
-        try {
-            List<Donation> donations = donationService.getRecentDonations(limit);
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Donation> donations = donationService.getRecentDonations(limit);
+        return ResponseEntity.ok(donations);
+    }
+
+    // Latest supporters, anonymized (public, no database access)
+    @GetMapping("/recent-supporters")
+    public ResponseEntity<List<RecentSupporter>> getRecentSupporters(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(donationService.getRecentSupporters(limit));
     }
 
-    // Get top donations by amount (Admin only)
+    // Get top donations by amount, overall or of a month given as yyyy-MM (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/top")
     public ResponseEntity<List<Donation>> getTopDonations(
-            @RequestParam(defaultValue = "10") int limit) {
-        try {
-            List<Donation> donations = donationService.getTopDonations(limit);
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) YearMonth month) {
+        List<Donation> donations = donationService.getTopDonations(limit, month);
+        return ResponseEntity.ok(donations);
     }
 
     // Get donation statistics (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/statistics")
-    public ResponseEntity<Map<String, Object>> getDonationStatistics(
+    public ResponseEntity<DonationStatistics> getDonationStatistics(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        try {
-            Map<String, Object> stats = donationService.getDonationStatistics(startDate, endDate);
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        DonationStatistics stats = donationService.getDonationStatistics(startDate, endDate);
+        return ResponseEntity.ok(stats);
+    }
+
+    // Total raised so far, from memory (public, no database access)
+    @GetMapping("/live-total")
+    public ResponseEntity<LiveDonationTotal> getLiveTotal() {
+        return ResponseEntity.ok(donationLiveTotals.current());
+    }
+
+    // Recompute the daily rollup behind the statistics from the donations (Admin only)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<MessageResponse> rebuildDonationStatistics() {
+        int rows = donationService.rebuildDailyRollup();
+        return ResponseEntity.ok(new MessageResponse("Daily rollup rebuilt: " + rows + " rows"));
     }
 
-    // Search donations with filters (Admin only)
+        // Search donations with filters (Admin only)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/search")
     public ResponseEntity<Page<Donation>> searchDonations(
@@ -170,44 +165,32 @@ public class DonationController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
-        try {
-            Page<Donation> donations = donationService.searchDonations(
-                donorName, donorEmail, status, 
-                minAmount, maxAmount, 
-                startDate, endDate, 
-                page, size, sortBy, sortDir
-            );
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        Page<Donation> donations = donationService.searchDonations(
+            donorName, donorEmail, status, 
+            minAmount, maxAmount, 
+            startDate, endDate, 
+            page, size, sortBy, sortDir
+        );
+        return ResponseEntity.ok(donations);
     }
 
     // Get current user's donations
     @GetMapping("/my-donations")
     public ResponseEntity<List<Donation>> getCurrentUserDonations(Principal principal) {
-        try {
-            String username = principal.getName();
-            User user = userService.getUserByUsername(username);
-            String userEmail = user.getEmail();
-            List<Donation> donations = donationService.getDonationsByDonorEmail(userEmail);
-            return ResponseEntity.ok(donations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        String username = principal.getName();
+        User user = userService.getUserByUsername(username);
+        String userEmail = user.getEmail();
+        List<Donation> donations = donationService.getDonationsByDonorEmail(userEmail);
+        return ResponseEntity.ok(donations);
     }
 
     // Get current user's donation statistics
     @GetMapping("/my-donations/statistics")
     public ResponseEntity<Map<String, Object>> getCurrentUserDonationStatistics(Principal principal) {
-        try {
-            String username = principal.getName();
-            User user = userService.getUserByUsername(username);
-            String userEmail = user.getEmail();
-            Map<String, Object> stats = donationService.getUserDonationStatistics(userEmail);
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        String username = principal.getName();
+        User user = userService.getUserByUsername(username);
+        String userEmail = user.getEmail();
+        Map<String, Object> stats = donationService.getUserDonationStatistics(userEmail);
+        return ResponseEntity.ok(stats);
     }
 }
@@ -3,9 +3,10 @@ package com._com.JourneeMondiale.controller;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -15,16 +16,31 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com._com.JourneeMondiale.dto.EventRegistrationDTO;
 import com._com.JourneeMondiale.dto.EventDTO;
+import com._com.JourneeMondiale.dto.EventListingDTO;
+import com._com.JourneeMondiale.exception.ResourceNotFoundException;
 import com._com.JourneeMondiale.model.Event;
 import com._com.JourneeMondiale.model.EventRegistration;
+import com._com.JourneeMondiale.payload.request.EventQueryRequest;
 import com._com.JourneeMondiale.payload.request.EventRegistrationRequest;
+import com._com.JourneeMondiale.payload.request.GroupRegistrationRequest;
+import com._com.JourneeMondiale.payload.response.EventPageResponse;
+import com._com.JourneeMondiale.payload.response.GroupRegistrationResponse;
+import com._com.JourneeMondiale.payload.response.QueueStatusResponse;
 import com._com.JourneeMondiale.security.services.UserDetailsImpl;
+import com._com.JourneeMondiale.service.EventCatalog;
+import com._com.JourneeMondiale.service.EventOccupancyStream;
+import com._com.JourneeMondiale.service.EventSearchService;
 import com._com.JourneeMondiale.service.EventService;
+import com._com.JourneeMondiale.service.WaitingRoomService;
 
 import jakarta.validation.Valid;
 
@@ -34,89 +50,135 @@ public class EventController {
     
     @Autowired
     private EventService eventService;
+
+    @Autowired
+    private WaitingRoomService waitingRoom;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    private EventSearchService eventSearch;
+
+    @Autowired
+    private EventOccupancyStream occupancyStream;
     
+    // Listings are served as pre-serialized bytes from the catalog snapshot (EventListingDTO documents)
     @GetMapping("/")
-    public ResponseEntity<List<EventDTO>> getAllEvents() {
-        List<EventDTO> eventDTOs = eventService.getUpcomingEvents().stream()
-            .map(event -> eventService.convertToEventDTO(event, true))
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(eventDTOs);
+    public ResponseEntity<byte[]> getAllEvents(WebRequest request) {
+        return fromCatalog(eventCatalog.upcoming(), request);
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<EventDTO>> getUpcomingOpenEvents() {
-        List<EventDTO> eventDTOs = eventService.getUpcomingOpenEvents().stream()
-            .map(event -> eventService.convertToEventDTO(event, true))
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(eventDTOs);
+    public ResponseEntity<byte[]> getUpcomingOpenEvents(WebRequest request) {
+        return fromCatalog(eventCatalog.upcomingOpen(), request);
+    }
+
+    // Typo-tolerant, answered from the in-memory index
+    @GetMapping("/search")
+    public ResponseEntity<List<EventListingDTO>> searchEvents(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(eventSearch.search(query, limit));
     }
 
+    // Filters combine freely; pages follow nextCursor
+    @GetMapping("/query")
+    public ResponseEntity<EventPageResponse> queryEvents(@Valid EventQueryRequest query) {
+        return ResponseEntity.ok(eventService.queryEvents(query));
+    }
+
+    // Server-Sent Events: the current occupancy of each event, then an update whenever it changes
+    @GetMapping("/stream")
+    public SseEmitter streamOccupancy(@RequestParam("ids") List<Long> eventIds) {
+        return occupancyStream.subscribe(eventIds);
+    }
+
+    // Anonymous callers get counts only, registrations are listed by the admin endpoint below
     @GetMapping("/{id}")
-    public ResponseEntity<EventDTO> getEventById(@PathVariable Long id) {
-        return eventService.getEventById(id)
-                .map(event -> ResponseEntity.ok(eventService.convertToEventDTO(event, true)))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getEventById(@PathVariable Long id, WebRequest request) {
+        EventCatalog.Document document = eventCatalog.byId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("event.not_found", "Événement non trouvé avec l'ID: " + id));
+        return fromCatalog(document, request);
     }
     
     @PostMapping("/{eventId}/register")
     public ResponseEntity<?> registerForEvent(
             @PathVariable Long eventId,
             @RequestBody @Valid EventRegistrationRequest request,
+            @RequestHeader(name = WaitingRoomService.TICKET_HEADER, required = false) String queueTicket,
             Authentication authentication) {
-        try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            Long userId = userDetails.getId();
-            
-            EventRegistration registration = eventService.registerUserForEvent(
-                    eventId, 
-                    userId, 
-                    request.getParticipantName(),
-                    request.getParticipantEmail(),
-                    request.getNotes()
-            );
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Inscription réussie à l'événement!");
-            response.put("registrationId", registration.getId());
-            
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        Long userId = userDetails.getId();
+        // When the waiting room is on, only admitted tickets get to the database
+        waitingRoom.checkAdmitted(eventId, userId, queueTicket);
+        
+        EventRegistration registration = eventService.registerUserForEvent(
+                eventId, 
+                userId, 
+                request.getParticipantName(),
+                request.getParticipantEmail(),
+                request.getNotes()
+        );
+        waitingRoom.leave(eventId, userId);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Inscription réussie à l'événement!");
+        response.put("registrationId", registration.getId());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // One transaction for the whole group; the response has a result per participant
+    @PostMapping("/{eventId}/register/group")
+    public ResponseEntity<GroupRegistrationResponse> registerGroupForEvent(
+            @PathVariable Long eventId,
+            @RequestBody @Valid GroupRegistrationRequest request,
+            @RequestHeader(name = WaitingRoomService.TICKET_HEADER, required = false) String queueTicket,
+            Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        Long userId = userDetails.getId();
+        waitingRoom.checkAdmitted(eventId, userId, queueTicket);
+
+        GroupRegistrationResponse response = eventService.registerGroupForEvent(eventId, userId, request.getParticipants());
+        waitingRoom.leave(eventId, userId);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/{eventId}/queue")
+    public ResponseEntity<QueueStatusResponse> joinQueue(@PathVariable Long eventId, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(waitingRoom.join(eventId, userDetails.getId()));
+    }
+
+    // Public: the ticket identifies the caller, and answering needs no database access
+    @GetMapping("/{eventId}/queue/position")
+    public ResponseEntity<QueueStatusResponse> getQueuePosition(
+            @PathVariable Long eventId,
+            @RequestHeader(name = WaitingRoomService.TICKET_HEADER, required = false) String queueTicket) {
+        return ResponseEntity.ok(waitingRoom.position(eventId, queueTicket));
     }
     
     @GetMapping("/my-registrations")
     public ResponseEntity<List<EventRegistrationDTO>> getMyRegistrations(Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         Long userId = userDetails.getId();
-        List<EventRegistration> registrations = eventService.getUpcomingUserRegistrations(userId);
-        List<EventRegistrationDTO> registrationDTOs = registrations.stream()
-            .map(eventService::convertToEventRegistrationDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(registrationDTOs);
+        return ResponseEntity.ok(eventService.getUpcomingUserRegistrations(userId));
     }
     
     @DeleteMapping("/registrations/{registrationId}")
     public ResponseEntity<?> cancelRegistration(
             @PathVariable Long registrationId,
             Authentication authentication) {
-        try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            Long userId = userDetails.getId();
-            
-            eventService.cancelRegistration(registrationId, userId);
-            
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Inscription annulée avec succès");
-            
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        Long userId = userDetails.getId();
+        
+        eventService.cancelRegistration(registrationId, userId);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Inscription annulée avec succès");
+        
+        return ResponseEntity.ok(response);
     }
     
     // Admin endpoints
@@ -131,38 +193,36 @@ public class EventController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<EventDTO> updateEvent(@PathVariable Long id, @RequestBody @Valid Event eventDetails) {
-        try {
-            Event updatedEvent = eventService.updateEvent(id, eventDetails);
-            EventDTO eventDTO = eventService.convertToEventDTO(updatedEvent, false);
-            return ResponseEntity.ok(eventDTO);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        Event updatedEvent = eventService.updateEvent(id, eventDetails);
+        EventDTO eventDTO = eventService.convertToEventDTO(updatedEvent, false);
+        return ResponseEntity.ok(eventDTO);
     }
     
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<?> deleteEvent(@PathVariable Long id) {
-        try {
-            eventService.deleteEvent(id);
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Événement supprimé avec succès");
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+        eventService.deleteEvent(id);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Événement supprimé avec succès");
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping("/{eventId}/registrations")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<List<EventRegistrationDTO>> getEventRegistrations(@PathVariable Long eventId) {
-        List<EventRegistration> registrations = eventService.getEventRegistrations(eventId);
-        List<EventRegistrationDTO> registrationDTOs = registrations.stream()
-            .map(eventService::convertToEventRegistrationDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(registrationDTOs);
+        return ResponseEntity.ok(eventService.getEventRegistrations(eventId));
+    }
+
+    // no-cache makes browsers revalidate every time, which a matching ETag answers with an empty 304
+    private ResponseEntity<byte[]> fromCatalog(EventCatalog.Document document, WebRequest request) {
+        if (request.checkNotModified(document.etag())) {
+            eventCatalog.recordNotModified();
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(document.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document.json());
     }
-    
 }
@@ -30,14 +30,9 @@ public class StripeController {
      */
     @PostMapping("/create-payment-intent")
     public ResponseEntity<Map<String, Object>> createPaymentIntent(
-            @RequestBody PaymentIntentRequest request) {
-        try {
-            Map<String, Object> response = paymentService.createPaymentIntent(request);
-            return ResponseEntity.ok(response);
-        } catch (StripeException e) {
-            Map<String, Object> errorResponse = Map.of("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+            @RequestBody PaymentIntentRequest request) throws StripeException {
+        Map<String, Object> response = paymentService.createPaymentIntent(request);
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -48,19 +43,14 @@ public class StripeController {
      */
     @PostMapping("/confirm")
     public ResponseEntity<Map<String, Object>> confirmPayment(
-            @RequestBody PaymentConfirmRequest request) {
-        try {
-            Map<String, Object> response = paymentService.confirmPayment(request);
-            
-            String status = (String) response.get("status");
-            if ("success".equals(status)) {
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-            }
-        } catch (StripeException e) {
-            Map<String, Object> errorResponse = Map.of("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            @RequestBody PaymentConfirmRequest request) throws StripeException {
+        Map<String, Object> response = paymentService.confirmPayment(request);
+        
+        String status = (String) response.get("status");
+        if ("success".equals(status)) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
     }
 }
\ No newline at end of file
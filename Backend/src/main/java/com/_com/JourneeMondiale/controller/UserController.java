@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +19,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.security.Jwt.JwtUtils;
+import com._com.JourneeMondiale.security.services.UserDetailsImpl;
 import com._com.JourneeMondiale.service.UserService;
 @RestController
 @RequestMapping("/api/users")
@@ -25,6 +28,9 @@ public class UserController {
     @Autowired
     private UserService service;
 
+    @Autowired
+    private JwtUtils jwtUtils;
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/")
     public ResponseEntity<List<User>> getAllUsers(
@@ -47,82 +53,59 @@ public class UserController {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        try {
-            User user = service.getUserById(id);
-            return ResponseEntity.ok(user);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
+        User user = service.getUserById(id);
+        return ResponseEntity.ok(user);
     }
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/")
     public ResponseEntity<User> createUser(@RequestBody User user) {
-        try {
-            User createdUser = service.createUser(user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-        }
+        User createdUser = service.createUser(user);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
-        try {
-            User updatedUser = service.updateUser(id, user);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
+        User updatedUser = service.updateUser(id, user);
+        return ResponseEntity.ok(updatedUser);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteUser(@PathVariable Long id) {
-        try {
-            service.deleteUser(id);
-            return ResponseEntity.ok("User deleted successfully");
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body("User not found with id: " + id);
-        }
+        service.deleteUser(id);
+        return ResponseEntity.ok("User deleted successfully");
     }
 
     // New endpoints for current user profile management
     @GetMapping("/me")
     public ResponseEntity<User> getCurrentUserProfile(Principal principal) {
-        try {
-            String username = principal.getName();
-            User user = service.getUserByUsername(username);
-            return ResponseEntity.ok(user);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
+        String username = principal.getName();
+        User user = service.getUserByUsername(username);
+        return ResponseEntity.ok(user);
     }
 
     @PutMapping("/me")
     public ResponseEntity<User> updateCurrentUserProfile(Principal principal, @RequestBody User userUpdates) {
-        try {
-            String username = principal.getName();
-            User updatedUser = service.updateUserProfile(username, userUpdates);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
+        String username = principal.getName();
+        User updatedUser = service.updateUserProfile(username, userUpdates);
+        // Re-issue the cookie so the token claims reflect the new profile
+        return ResponseEntity.ok()
+            .header(HttpHeaders.SET_COOKIE, jwtUtils.generateJwtCookie(UserDetailsImpl.build(updatedUser)).toString())
+            .body(updatedUser);
     }
 
     @PutMapping("/me/password")
     public ResponseEntity<String> changePassword(Principal principal, @RequestBody Map<String, String> passwords) {
-        try {
-            String username = principal.getName();
-            String oldPassword = passwords.get("oldPassword");
-            String newPassword = passwords.get("newPassword");
-            
-            service.changePassword(username, oldPassword, newPassword);
-            return ResponseEntity.ok("Password changed successfully");
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        }
+        String username = principal.getName();
+        String oldPassword = passwords.get("oldPassword");
+        String newPassword = passwords.get("newPassword");
+        
+        User user = service.changePassword(username, oldPassword, newPassword);
+        // Older tokens are revoked by the password change, keep this session signed in
+        return ResponseEntity.ok()
+            .header(HttpHeaders.SET_COOKIE, jwtUtils.generateJwtCookie(UserDetailsImpl.build(user)).toString())
+            .body("Password changed successfully");
     }
 
     
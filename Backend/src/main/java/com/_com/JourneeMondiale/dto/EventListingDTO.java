@@ -0,0 +1,46 @@
+package com._com.JourneeMondiale.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Event as shown in the public listings: counts only, never the registrations.
+ * Built directly by a JPQL constructor expression, see {@code EventRepository}.
+ */
+@Getter
+@Setter
+public class EventListingDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private String location;
+    private LocalDateTime eventDate;
+    private LocalDateTime registrationDeadline;
+    private Integer maxParticipants;
+    private Integer currentParticipants;
+    private Integer availableSpots;
+    private String eventType;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public EventListingDTO(Long id, String name, String description, String location, LocalDateTime eventDate,
+                           LocalDateTime registrationDeadline, Integer maxParticipants, Integer currentParticipants,
+                           String eventType, Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.location = location;
+        this.eventDate = eventDate;
+        this.registrationDeadline = registrationDeadline;
+        this.maxParticipants = maxParticipants;
+        this.currentParticipants = currentParticipants != null ? currentParticipants : 0;
+        this.availableSpots = Math.max(0, maxParticipants - this.currentParticipants);
+        this.eventType = eventType;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -2,6 +2,8 @@ package com._com.JourneeMondiale.dto;
 
 import java.time.LocalDateTime;
 
+import com._com.JourneeMondiale.model.EventRegistration;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -31,6 +33,16 @@ public class EventRegistrationDTO {
         this.event = event;
     }
 
+    // Flat form for the JPQL constructor expressions of EventRegistrationRepository: one row per registration, event included
+    public EventRegistrationDTO(Long id, String participantName, String participantEmail, String notes, LocalDateTime registrationDate,
+                               EventRegistration.RegistrationStatus status, Long eventId, String eventName, String eventDescription,
+                               String eventLocation, LocalDateTime eventDate, LocalDateTime registrationDeadline,
+                               Integer maxParticipants, Integer currentParticipants, String eventType) {
+        this(id, participantName, participantEmail, notes, registrationDate, status.name(),
+             new EventSummaryDTO(eventId, eventName, eventDescription, eventLocation, eventDate, registrationDeadline,
+                                 maxParticipants, currentParticipants, eventType));
+    }
+
     // Nested EventSummaryDTO class
     public static class EventSummaryDTO {
         private Long id;
@@ -0,0 +1,29 @@
+package com._com.JourneeMondiale.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base for errors that map to a specific HTTP status and a stable error code.
+ * The code is what clients should match on; the message is meant for humans.
+ */
+public class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+
+    private final String code;
+
+    public ApiException(HttpStatus status, String code, String message) {
+        super(message);
+        this.status = status;
+        this.code = code;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
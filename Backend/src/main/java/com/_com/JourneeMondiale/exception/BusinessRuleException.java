@@ -0,0 +1,18 @@
+package com._com.JourneeMondiale.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request that is well-formed but not allowed in the current state (event full, already registered...).
+ */
+public class BusinessRuleException extends ApiException {
+    private static final long serialVersionUID = 1L;
+
+    public BusinessRuleException(String code, String message) {
+        super(HttpStatus.BAD_REQUEST, code, message);
+    }
+
+    public BusinessRuleException(HttpStatus status, String code, String message) {
+        super(status, code, message);
+    }
+}
@@ -0,0 +1,106 @@
+package com._com.JourneeMondiale.exception;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import com._com.JourneeMondiale.security.HashingCapacityExceededException;
+import com._com.JourneeMondiale.security.SigninRateLimitedException;
+import com.stripe.exception.StripeException;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Single error pipeline for all controllers. Every error is answered with an
+ * RFC 7807 problem carrying a stable {@code code}, and counted per route.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    @Autowired
+    private ProblemResponses problems;
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<Object> handleApiException(ApiException e, HttpServletRequest request) {
+        return problems.respond(request, e.getStatus(), e.getCode(), e.getMessage());
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<Object> handleBadCredentials(BadCredentialsException e, HttpServletRequest request) {
+        return problems.respondConstant(request, ProblemResponses.BAD_CREDENTIALS);
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Object> handleAuthentication(AuthenticationException e, HttpServletRequest request) {
+        return problems.respondConstant(request, ProblemResponses.UNAUTHORIZED);
+    }
+
+    // @PreAuthorize failures are raised inside the controller, after the security filters
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Object> handleAccessDenied(AccessDeniedException e, HttpServletRequest request) {
+        return problems.respondConstant(request, ProblemResponses.FORBIDDEN);
+    }
+
+    @ExceptionHandler(SigninRateLimitedException.class)
+    public ResponseEntity<Object> handleSigninRateLimited(SigninRateLimitedException e, HttpServletRequest request) {
+        return problems.respondConstant(request, ProblemResponses.SIGNIN_THROTTLED, e.getRetryAfterSeconds());
+    }
+
+    // Sign-in/sign-up burst beyond the hashing pool: fail fast instead of queueing on Tomcat threads
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Object> handleHashingCapacityExceeded(HashingCapacityExceededException e, HttpServletRequest request) {
+        return problems.respondConstant(request, ProblemResponses.HASHING_BUSY, e.getRetryAfterSeconds());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolation(DataIntegrityViolationException e, HttpServletRequest request) {
+        logger.warn("Data integrity violation: {}", e.getMostSpecificCause().getMessage());
+        return problems.respondConstant(request, ProblemResponses.CONFLICT);
+    }
+
+    @ExceptionHandler(StripeException.class)
+    public ResponseEntity<Object> handleStripe(StripeException e, HttpServletRequest request) {
+        logger.error("Stripe error: {}", e.getMessage());
+        return problems.respond(request, HttpStatus.INTERNAL_SERVER_ERROR, "payment.provider_error", e.getMessage());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Object> handleUnexpected(Exception e, HttpServletRequest request) {
+        logger.error("Unhandled error on {}", request.getRequestURI(), e);
+        return problems.respondConstant(request, ProblemResponses.INTERNAL);
+    }
+
+    // Spring MVC's own errors (validation, unreadable body, missing parameter...) already come as problems;
+    // their body is only filled in by handleExceptionInternal, so they are decorated here
+    @Override
+    protected ResponseEntity<Object> createResponseEntity(@Nullable Object body, HttpHeaders headers,
+                                                          HttpStatusCode statusCode, WebRequest request) {
+        if (body instanceof ProblemDetail problem) {
+            String code = "request." + HttpStatus.valueOf(statusCode.value()).name().toLowerCase(Locale.ROOT);
+            problems.decorate(problem, code);
+            if (request instanceof ServletWebRequest servletRequest) {
+                problems.count(servletRequest.getRequest(), code);
+            }
+        }
+        return super.createResponseEntity(body, headers, statusCode, request);
+    }
+}
@@ -0,0 +1,160 @@
+package com._com.JourneeMondiale.exception;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Builds RFC 7807 problem responses and counts them per route and error code.
+ *
+ * Errors whose body never changes (401, 403, throttling, 500) are serialized once
+ * at startup with the application's ObjectMapper and written as raw bytes, so a
+ * flood of rejected requests costs no mapping work. Each body also carries
+ * {@code error} and {@code message} properties with the detail text, which the
+ * frontend reads.
+ */
+@Component
+public class ProblemResponses {
+
+    public static final String UNAUTHORIZED = "auth.unauthorized";
+    public static final String BAD_CREDENTIALS = "auth.bad_credentials";
+    public static final String FORBIDDEN = "auth.forbidden";
+    public static final String SIGNIN_THROTTLED = "auth.signin_throttled";
+    public static final String HASHING_BUSY = "auth.hashing_busy";
+    public static final String CONFLICT = "data.conflict";
+    public static final String INTERNAL = "internal";
+
+    // Route tag for requests rejected before reaching a controller (JWT filter, authorization rules)
+    private static final String SECURITY_ROUTE = "security.filter";
+
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Constant> constants = new ConcurrentHashMap<>();
+
+    // route -> code -> counter, so a hit allocates nothing
+    private final Map<String, Map<String, Counter>> errorCounters = new ConcurrentHashMap<>();
+
+    public ProblemResponses(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        register(HttpStatus.UNAUTHORIZED, UNAUTHORIZED, "Full authentication is required to access this resource");
+        register(HttpStatus.UNAUTHORIZED, BAD_CREDENTIALS, "Bad credentials");
+        register(HttpStatus.FORBIDDEN, FORBIDDEN, "Access denied");
+        register(HttpStatus.TOO_MANY_REQUESTS, SIGNIN_THROTTLED, "Too many sign-in attempts, please retry later");
+        register(HttpStatus.SERVICE_UNAVAILABLE, HASHING_BUSY, "Too many sign-in attempts in progress, please retry shortly");
+        register(HttpStatus.CONFLICT, CONFLICT, "The request conflicts with existing data");
+        register(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL, "An unexpected error occurred");
+    }
+
+    public ProblemDetail problem(HttpStatus status, String code, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        decorate(problem, code);
+        return problem;
+    }
+
+    /**
+     * Adds the stable code and the frontend-facing properties to a problem built elsewhere.
+     */
+    public void decorate(ProblemDetail problem, String code) {
+        problem.setProperty("code", code);
+        problem.setProperty("error", problem.getDetail());
+        problem.setProperty("message", problem.getDetail());
+    }
+
+    public ResponseEntity<Object> respond(HttpServletRequest request, HttpStatus status, String code, String detail) {
+        count(request, code);
+        return ResponseEntity.status(status)
+            .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .body(problem(status, code, detail));
+    }
+
+    /**
+     * Pre-serialized response for one of the constant codes above.
+     */
+    public ResponseEntity<Object> respondConstant(HttpServletRequest request, String code) {
+        return respondConstant(request, code, null);
+    }
+
+    public ResponseEntity<Object> respondConstant(HttpServletRequest request, String code, Long retryAfterSeconds) {
+        Constant constant = constant(code);
+        count(request, code);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(constant.status())
+            .contentType(MediaType.APPLICATION_PROBLEM_JSON);
+        if (retryAfterSeconds != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return builder.body(constant.body());
+    }
+
+    /**
+     * Writes a constant problem straight to the servlet response, for errors raised outside Spring MVC.
+     */
+    public void writeConstant(HttpServletResponse response, String code) throws IOException {
+        Constant constant = constant(code);
+        count(SECURITY_ROUTE, code);
+        response.setStatus(constant.status().value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(constant.body().length);
+        response.getOutputStream().write(constant.body());
+    }
+
+    public void count(HttpServletRequest request, String code) {
+        count(routeOf(request), code);
+    }
+
+    private void count(String route, String code) {
+        errorCounters
+            .computeIfAbsent(route, r -> new ConcurrentHashMap<>())
+            .computeIfAbsent(code, c -> Counter.builder("http.errors")
+                .tag("route", route)
+                .tag("code", c)
+                .register(meterRegistry))
+            .increment();
+    }
+
+    // The handler's pattern keeps the tag cardinality bounded; raw paths would not
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+    }
+
+    private Constant constant(String code) {
+        Constant constant = constants.get(code);
+        if (constant == null) {
+            throw new IllegalArgumentException("No constant problem registered for " + code);
+        }
+        return constant;
+    }
+
+    private void register(HttpStatus status, String code, String detail) {
+        try {
+            constants.put(code, new Constant(status, objectMapper.writeValueAsBytes(problem(status, code, detail))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize problem " + code, e);
+        }
+    }
+
+    private record Constant(HttpStatus status, byte[] body) {
+    }
+}
@@ -0,0 +1,11 @@
+package com._com.JourneeMondiale.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ResourceNotFoundException extends ApiException {
+    private static final long serialVersionUID = 1L;
+
+    public ResourceNotFoundException(String code, String message) {
+        super(HttpStatus.NOT_FOUND, code, message);
+    }
+}
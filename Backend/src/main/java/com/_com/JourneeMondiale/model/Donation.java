@@ -9,7 +9,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "donations")
+@Table(name = "donations", indexes = {
+    @Index(name = "idx_donations_created_at", columnList = "createdAt"),
+    @Index(name = "idx_donations_status_amount", columnList = "status, amount")
+})
 @Data
 @NoArgsConstructor
 public class Donation {
@@ -52,4 +55,12 @@ public class Donation {
         this.description = description;
         this.status = status;
     }
+
+    // Detached copy, for caches that outlive the persistence context
+    public Donation copy() {
+        Donation copy = new Donation(paymentIntentId, amount, currency, donorName, donorEmail, description, status);
+        copy.setId(id);
+        copy.setCreatedAt(createdAt);
+        return copy;
+    }
 }
@@ -0,0 +1,56 @@
+package com._com.JourneeMondiale.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Count and sum of the donations created on one day, per currency and status. Kept up to
+ * date in the transaction of every donation write, so range statistics read a few rows per
+ * day instead of the donations themselves.
+ */
+@Entity
+@Table(name = "donation_daily_rollup")
+@IdClass(DonationDailyRollup.Key.class)
+@Data
+@NoArgsConstructor
+public class DonationDailyRollup {
+
+    @Id
+    @Column(name = "donation_day")
+    private LocalDate day;
+
+    @Id
+    @Column(length = 3)
+    private String currency;
+
+    @Id
+    private String status;
+
+    @Column(nullable = false)
+    private long donationCount;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private LocalDate day;
+
+        private String currency;
+
+        private String status;
+    }
+}
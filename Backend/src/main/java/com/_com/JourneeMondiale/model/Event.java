@@ -4,12 +4,18 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -20,7 +26,15 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "events")
+@DynamicUpdate // Never write back current_participants from a stale copy; it is only changed by EventRepository
+// Ordered scans for the listings and the keyset pages of /api/events/query. is_active is left out:
+// nearly every row is active, and a leading boolean column keeps H2 from reading the index in order
+@Table(name = "events", indexes = {
+    @Index(name = "idx_events_date", columnList = "eventDate, id"),
+    @Index(name = "idx_events_deadline", columnList = "registrationDeadline, id"),
+    @Index(name = "idx_events_type_date", columnList = "eventType, eventDate, id"),
+    @Index(name = "idx_events_state_date", columnList = "lifecycleState, eventDate, id")
+})
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -56,6 +70,10 @@ public class Event {
     @NotNull
     private Boolean isActive = true;
 
+    // Kept current by EventLifecycleService as the deadline and the event date go by
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private LifecycleState lifecycleState;
 
     @NotNull
     private LocalDateTime createdAt;
@@ -65,6 +83,10 @@ public class Event {
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<EventRegistration> registrations = new HashSet<>();
 
+    public enum LifecycleState {
+        OPEN, CLOSED, PAST
+    }
+
     public Event() {
         this.createdAt = LocalDateTime.now();
     }
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -13,6 +14,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -26,8 +28,11 @@ import lombok.Setter;
 @Entity
 @Table(name = "event_registrations")
 public class EventRegistration {
+    // Ids come from a sequence in blocks of 50, so group registrations can be inserted in JDBC batches;
+    // with IDENTITY, Hibernate has to run each insert on its own to read the generated key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_registrations_seq")
+    @SequenceGenerator(name = "event_registrations_seq", sequenceName = "event_registrations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -57,6 +62,10 @@ public class EventRegistration {
     @Enumerated(EnumType.STRING)
     private RegistrationStatus status = RegistrationStatus.CONFIRMED;
 
+    // Shared by the registrations made in one group registration; null for a user's own registration
+    @Column(length = 36)
+    private String groupId;
+
     public enum RegistrationStatus {
         PENDING, CONFIRMED, CANCELLED
     }
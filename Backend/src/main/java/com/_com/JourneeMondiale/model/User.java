@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -59,6 +61,10 @@ public class User {
   @UpdateTimestamp
   private LocalDateTime updatedAt;
 
+  // Bumped whenever previously issued tokens must stop being trusted (password, role, deletion)
+  @JsonIgnore
+  private Long securityVersion = 0L;
+
   public User(String username, String email, String firstName, String lastName, String password, String role) {
     this.username = username;
     this.email = email;
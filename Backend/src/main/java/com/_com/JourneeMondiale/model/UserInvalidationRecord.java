@@ -0,0 +1,55 @@
+package com._com.JourneeMondiale.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbox row used to propagate user invalidations between backend replicas.
+ */
+@Entity
+@Table(name = "user_invalidations")
+@Data
+@NoArgsConstructor
+public class UserInvalidationRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long securityVersion;
+
+    // Identity after the change, null on deletion
+    @Column(length = 20)
+    private String username;
+
+    @Column(length = 50)
+    private String email;
+
+    @Column(nullable = false, length = 36)
+    private String originNode;
+
+    @Column(nullable = false)
+    private LocalDateTime publishedAt;
+
+    public UserInvalidationRecord(Long userId, Long securityVersion, String username, String email, String originNode,
+                                  LocalDateTime publishedAt) {
+        this.userId = userId;
+        this.securityVersion = securityVersion;
+        this.username = username;
+        this.email = email;
+        this.originNode = originNode;
+        this.publishedAt = publishedAt;
+    }
+}
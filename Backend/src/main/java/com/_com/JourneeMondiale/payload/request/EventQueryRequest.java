@@ -0,0 +1,44 @@
+package com._com.JourneeMondiale.payload.request;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+// Query string of GET /api/events/query; every filter is optional
+@Data
+public class EventQueryRequest {
+
+    public enum Sort {
+        DATE_ASC, DATE_DESC, DEADLINE_ASC
+    }
+
+    @Size(max = 50)
+    private String type;
+
+    // Event date range, inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    // Case-insensitive prefix; typo-tolerant matching is /search's job
+    @Size(max = 100)
+    private String location;
+
+    private Boolean hasFreeSpots;
+
+    private Sort sort = Sort.DATE_ASC;
+
+    @Min(1)
+    @Max(100)
+    private int size = 20;
+
+    // nextCursor of the previous page
+    private String cursor;
+}
@@ -1,10 +1,21 @@
 package com._com.JourneeMondiale.payload.request;
 
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Data
 public class EventRegistrationRequest {
+        @NotBlank
+        @Size(max = 100)
         private String participantName;
+
+        @NotBlank
+        @Email
+        @Size(max = 100)
         private String participantEmail;
+
+        @Size(max = 500)
         private String notes;
     }
\ No newline at end of file
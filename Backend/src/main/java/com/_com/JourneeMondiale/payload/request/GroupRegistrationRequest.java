@@ -0,0 +1,19 @@
+package com._com.JourneeMondiale.payload.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+// Participants are not @Valid: each one is checked on its own and reported in the response
+@Data
+public class GroupRegistrationRequest {
+
+    public static final int MAX_PARTICIPANTS = 100;
+
+    @NotEmpty
+    @Size(max = MAX_PARTICIPANTS)
+    private List<@NotNull EventRegistrationRequest> participants;
+}
@@ -0,0 +1,51 @@
+package com._com.JourneeMondiale.payload.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com._com.JourneeMondiale.repository.DonationRepository;
+
+/**
+ * Donation totals per status. totalCount, totalAmount and averageAmount only count
+ * succeeded donations, as the dashboard always has.
+ */
+public record DonationStatistics(
+        long totalCount,
+        BigDecimal totalAmount,
+        double averageAmount,
+        long succeededCount,
+        long pendingCount,
+        long failedCount,
+        BigDecimal succeededAmount,
+        BigDecimal pendingAmount,
+        BigDecimal failedAmount) {
+
+    // A status may come in several rows (daily rollup plus partial days); they are added up
+    public static DonationStatistics from(List<DonationRepository.StatusTotals> totals) {
+        long succeededCount = 0, pendingCount = 0, failedCount = 0;
+        BigDecimal succeededAmount = BigDecimal.ZERO, pendingAmount = BigDecimal.ZERO, failedAmount = BigDecimal.ZERO;
+        for (DonationRepository.StatusTotals row : totals) {
+            BigDecimal amount = row.getAmount() != null ? row.getAmount() : BigDecimal.ZERO;
+            switch (String.valueOf(row.getStatus())) {
+                case "succeeded" -> {
+                    succeededCount += row.getCount();
+                    succeededAmount = succeededAmount.add(amount);
+                }
+                case "pending" -> {
+                    pendingCount += row.getCount();
+                    pendingAmount = pendingAmount.add(amount);
+                }
+                case "failed" -> {
+                    failedCount += row.getCount();
+                    failedAmount = failedAmount.add(amount);
+                }
+                default -> {
+                    // Other Stripe statuses (canceled, requires_action...) are not reported
+                }
+            }
+        }
+        double average = succeededCount > 0 ? succeededAmount.doubleValue() / succeededCount : 0.0;
+        return new DonationStatistics(succeededCount, succeededAmount, average,
+            succeededCount, pendingCount, failedCount, succeededAmount, pendingAmount, failedAmount);
+    }
+}
@@ -0,0 +1,16 @@
+package com._com.JourneeMondiale.payload.response;
+
+import java.util.List;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// nextCursor is null on the last page
+@Data
+@AllArgsConstructor
+public class EventPageResponse {
+    private List<EventListingDTO> items;
+    private String nextCursor;
+}
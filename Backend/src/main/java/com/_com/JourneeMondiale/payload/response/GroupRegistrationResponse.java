@@ -0,0 +1,34 @@
+package com._com.JourneeMondiale.payload.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One result per participant, in request order; groupId is null when nobody was registered
+@Data
+@AllArgsConstructor
+public class GroupRegistrationResponse {
+    private String groupId;
+    private int registered;
+    private List<ParticipantResult> results;
+
+    public enum Outcome {
+        REGISTERED, REJECTED
+    }
+
+    // registrationId when registered, code and message when rejected
+    @Data
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ParticipantResult {
+        private int index;
+        private String participantEmail;
+        private Outcome outcome;
+        private Long registrationId;
+        private String code;
+        private String message;
+    }
+}
@@ -0,0 +1,11 @@
+package com._com.JourneeMondiale.payload.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Succeeded donations as counted in memory by this node, for the public "total raised"
+ * widget. updatedAt is when the figures were last snapshotted.
+ */
+public record LiveDonationTotal(long count, BigDecimal amount, Instant updatedAt) {
+}
@@ -0,0 +1,19 @@
+package com._com.JourneeMondiale.payload.response;
+
+import com._com.JourneeMondiale.model.Event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Data of the "occupancy" events of /api/events/stream; open is false once the deadline passed or the event is full
+@Data
+@AllArgsConstructor
+public class OccupancyUpdate {
+    private Long eventId;
+    private int currentParticipants;
+    private int maxParticipants;
+    private int remainingPlaces;
+    private Event.LifecycleState state;
+    private boolean open;
+    private boolean active;
+}
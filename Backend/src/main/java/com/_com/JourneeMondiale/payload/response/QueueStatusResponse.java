@@ -0,0 +1,17 @@
+package com._com.JourneeMondiale.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// The ticket is only sent when joining; send it back in the X-Queue-Ticket header
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueueStatusResponse {
+    private String ticket;
+    private Long position;
+    private Boolean admitted;
+    private Long pollAfterMs;
+}
@@ -0,0 +1,11 @@
+package com._com.JourneeMondiale.payload.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the public "recent supporters" feed: a first name and the initial of the
+ * last name, never the email nor the full name.
+ */
+public record RecentSupporter(String name, BigDecimal amount, String currency, LocalDateTime donatedAt) {
+}
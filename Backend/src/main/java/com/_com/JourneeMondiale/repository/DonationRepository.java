@@ -8,16 +8,28 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com._com.JourneeMondiale.model.Donation;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface DonationRepository extends JpaRepository<Donation, Long> {
     
     Optional<Donation> findByPaymentIntentId(String paymentIntentId);
+
+    // Locked until the transaction ends, so concurrent updates of one donation move the rollup one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Donation d WHERE d.paymentIntentId = :paymentIntentId")
+    Optional<Donation> findForUpdateByPaymentIntentId(@Param("paymentIntentId") String paymentIntentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Donation d WHERE d.id = :id")
+    Optional<Donation> findForUpdateById(@Param("id") Long id);
     
     List<Donation> findByDonorEmailOrderByCreatedAtDesc(String donorEmail);
     
@@ -38,19 +50,48 @@ public interface DonationRepository extends JpaRepository<Donation, Long> {
     @Query("SELECT d FROM Donation d WHERE d.createdAt >= :thirtyDaysAgo ORDER BY d.createdAt DESC")
     List<Donation> findRecentDonations(@Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
     
+    // Latest donations of a status, newest first
+    List<Donation> findByStatusOrderByCreatedAtDescIdDesc(String status, Pageable pageable);
+    
     // Get top donations by amount
-    @Query("SELECT d FROM Donation d WHERE d.status = 'succeeded' ORDER BY d.amount DESC")
+    @Query("SELECT d FROM Donation d WHERE d.status = 'succeeded' ORDER BY d.amount DESC, d.id ASC")
     List<Donation> findTopDonationsByAmount(Pageable pageable);
+
+    // Get top donations by amount created in [from, until)
+    @Query("SELECT d FROM Donation d WHERE d.status = 'succeeded' AND d.createdAt >= :from AND d.createdAt < :until "
+           + "ORDER BY d.amount DESC, d.id ASC")
+    List<Donation> findTopDonationsByAmountBetween(@Param("from") LocalDateTime from,
+                                                   @Param("until") LocalDateTime until,
+                                                   Pageable pageable);
     
     // Get total donation amount by status
     @Query("SELECT SUM(d.amount) FROM Donation d WHERE d.status = :status")
     BigDecimal getTotalAmountByStatus(@Param("status") String status);
-    
 
-    
-    // Get donation statistics
-    @Query("SELECT COUNT(d), SUM(d.amount), AVG(d.amount) FROM Donation d WHERE d.status = 'succeeded' ")
-    Object getDonationStatistics();
+    /**
+     * One row per status; the aggregates are computed by the database, so memory does not grow with the table.
+     */
+    interface StatusTotals {
+        String getStatus();
+
+        long getCount();
+
+        BigDecimal getAmount();
+    }
+
+    @Query("SELECT d.status AS status, COUNT(d) AS count, SUM(d.amount) AS amount FROM Donation d GROUP BY d.status")
+    List<StatusTotals> getTotalsByStatus();
+
+    @Query("SELECT d.status AS status, COUNT(d) AS count, SUM(d.amount) AS amount FROM Donation d "
+           + "WHERE d.createdAt BETWEEN :startDate AND :endDate GROUP BY d.status")
+    List<StatusTotals> getTotalsByStatusBetween(@Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+
+    // Upper bound excluded: the slice of a day that ends where the daily rollup takes over
+    @Query("SELECT d.status AS status, COUNT(d) AS count, SUM(d.amount) AS amount FROM Donation d "
+           + "WHERE d.createdAt >= :from AND d.createdAt < :until GROUP BY d.status")
+    List<StatusTotals> getTotalsByStatusFromUntil(@Param("from") LocalDateTime from,
+                                                  @Param("until") LocalDateTime until);
 
 
     
@@ -0,0 +1,51 @@
+package com._com.JourneeMondiale.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com._com.JourneeMondiale.model.DonationDailyRollup;
+
+@Repository
+public interface DonationRollupRepository extends JpaRepository<DonationDailyRollup, DonationDailyRollup.Key> {
+
+    /**
+     * Adds the deltas to the row of the day, currency and status, creating it if needed.
+     * One upsert statement, so concurrent donations of the same day never lose an update.
+     */
+    @Modifying
+    @Query("INSERT INTO DonationDailyRollup (day, currency, status, donationCount, totalAmount) "
+           + "VALUES (:day, :currency, :status, :count, :amount) "
+           + "ON CONFLICT (day, currency, status) DO UPDATE SET "
+           + "donationCount = donationCount + excluded.donationCount, totalAmount = totalAmount + excluded.totalAmount")
+    int addToDay(@Param("day") LocalDate day,
+                 @Param("currency") String currency,
+                 @Param("status") String status,
+                 @Param("count") long count,
+                 @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("DELETE FROM DonationDailyRollup r")
+    int deleteAllRows();
+
+    @Modifying
+    @Query("INSERT INTO DonationDailyRollup (day, currency, status, donationCount, totalAmount) "
+           + "SELECT CAST(d.createdAt AS LocalDate), d.currency, d.status, COUNT(d), SUM(d.amount) FROM Donation d "
+           + "WHERE d.createdAt IS NOT NULL GROUP BY CAST(d.createdAt AS LocalDate), d.currency, d.status")
+    int insertFromDonations();
+
+    @Query("SELECT r.status AS status, SUM(r.donationCount) AS count, SUM(r.totalAmount) AS amount "
+           + "FROM DonationDailyRollup r GROUP BY r.status")
+    List<DonationRepository.StatusTotals> getTotalsByStatus();
+
+    @Query("SELECT r.status AS status, SUM(r.donationCount) AS count, SUM(r.totalAmount) AS amount "
+           + "FROM DonationDailyRollup r WHERE r.day BETWEEN :fromDay AND :toDay GROUP BY r.status")
+    List<DonationRepository.StatusTotals> getTotalsByStatusBetween(@Param("fromDay") LocalDate fromDay,
+                                                                   @Param("toDay") LocalDate toDay);
+}
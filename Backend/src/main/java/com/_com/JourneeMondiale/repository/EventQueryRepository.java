@@ -0,0 +1,25 @@
+package com._com.JourneeMondiale.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+import com._com.JourneeMondiale.payload.request.EventQueryRequest;
+
+/**
+ * Composite event query, built from whichever filters are set so that each
+ * combination gets a plain, index-friendly WHERE clause.
+ */
+public interface EventQueryRepository {
+
+    /**
+     * Position of the last row of the previous page, in the order of the requested sort.
+     */
+    record Keyset(LocalDateTime sortValue, Long id) {
+    }
+
+    /**
+     * Active events matching the query, strictly after {@code after} when given.
+     */
+    List<EventListingDTO> queryListings(EventQueryRequest query, Keyset after, int limit);
+}
@@ -0,0 +1,88 @@
+package com._com.JourneeMondiale.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.payload.request.EventQueryRequest;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Only the filters that are set become predicates; optional parameters written as
+ * {@code (:x IS NULL OR ...)} would keep the database from using the indexes on
+ * {@link Event}. Pages are cut with a keyset on (sort column, id) rather than an
+ * offset, so deep pages cost the same as the first one.
+ */
+class EventQueryRepositoryImpl implements EventQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventListingDTO> queryListings(EventQueryRequest query, Keyset after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventListingDTO> cq = cb.createQuery(EventListingDTO.class);
+        Root<Event> e = cq.from(Event.class);
+        cq.select(cb.construct(EventListingDTO.class,
+            e.get("id"), e.get("name"), e.get("description"), e.get("location"),
+            e.get("eventDate"), e.get("registrationDeadline"), e.get("maxParticipants"), e.get("currentParticipants"),
+            e.get("eventType"), e.get("isActive"), e.get("createdAt"), e.get("updatedAt")));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.isTrue(e.get("isActive")));
+        if (query.getType() != null) {
+            where.add(cb.equal(e.get("eventType"), query.getType()));
+        }
+        if (query.getLocation() != null) {
+            where.add(cb.like(cb.lower(e.get("location")), escapeLike(query.getLocation().toLowerCase(Locale.ROOT)) + "%", '\\'));
+        }
+        if (query.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(e.get("eventDate"), query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            where.add(cb.lessThanOrEqualTo(e.get("eventDate"), query.getTo()));
+        }
+        if (Boolean.TRUE.equals(query.getHasFreeSpots())) {
+            where.add(cb.lessThan(cb.coalesce(e.<Integer>get("currentParticipants"), 0), e.get("maxParticipants")));
+        }
+
+        Path<LocalDateTime> sortColumn = e.get(query.getSort() == EventQueryRequest.Sort.DEADLINE_ASC
+            ? "registrationDeadline" : "eventDate");
+        Path<Long> id = e.get("id");
+        boolean descending = query.getSort() == EventQueryRequest.Sort.DATE_DESC;
+        if (after != null) {
+            // (sort, id) past the keyset, spelled with a plain range on the sort column so the index is used
+            where.add(descending
+                ? cb.and(cb.lessThanOrEqualTo(sortColumn, after.sortValue()),
+                        cb.or(cb.lessThan(sortColumn, after.sortValue()), cb.lessThan(id, after.id())))
+                : cb.and(cb.greaterThanOrEqualTo(sortColumn, after.sortValue()),
+                        cb.or(cb.greaterThan(sortColumn, after.sortValue()), cb.greaterThan(id, after.id()))));
+        }
+        cq.where(where.toArray(Predicate[]::new));
+        List<Order> order = new ArrayList<>();
+        if (query.getType() != null && query.getSort() != EventQueryRequest.Sort.DEADLINE_ASC) {
+            // A no-op for the result since the type is fixed, but it lets H2 read idx_events_type_date in order
+            order.add(descending ? cb.desc(e.get("eventType")) : cb.asc(e.get("eventType")));
+        }
+        order.add(descending ? cb.desc(sortColumn) : cb.asc(sortColumn));
+        order.add(descending ? cb.desc(id) : cb.asc(id));
+        cq.orderBy(order);
+
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,19 @@
+package com._com.JourneeMondiale.repository;
+
+import java.util.List;
+
+import com._com.JourneeMondiale.model.EventRegistration;
+
+/**
+ * Inserts many registrations in JDBC batches instead of one statement round trip each.
+ */
+public interface EventRegistrationBatchRepository {
+
+    // Matches the allocation size of the id sequence: one sequence call per batch
+    int BATCH_SIZE = 50;
+
+    /**
+     * Persists new registrations and flushes them. Must run inside a transaction.
+     */
+    void insertAll(List<EventRegistration> registrations);
+}
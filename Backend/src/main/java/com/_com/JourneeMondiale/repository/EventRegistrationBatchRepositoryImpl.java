@@ -0,0 +1,35 @@
+package com._com.JourneeMondiale.repository;
+
+import java.util.List;
+
+import org.hibernate.Session;
+
+import com._com.JourneeMondiale.model.EventRegistration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * The batch size is set on the session for this flush only, so the rest of the
+ * application keeps the global JDBC settings.
+ */
+class EventRegistrationBatchRepositoryImpl implements EventRegistrationBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<EventRegistration> registrations) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previous = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(BATCH_SIZE);
+        try {
+            for (EventRegistration registration : registrations) {
+                entityManager.persist(registration);
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(previous);
+        }
+    }
+}
@@ -1,32 +1,55 @@
 package com._com.JourneeMondiale.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com._com.JourneeMondiale.dto.EventRegistrationDTO;
 import com._com.JourneeMondiale.model.EventRegistration;
 
 @Repository
-public interface EventRegistrationRepository extends JpaRepository<EventRegistration, Long> {
+public interface EventRegistrationRepository extends JpaRepository<EventRegistration, Long>, EventRegistrationBatchRepository {
+
+    String REGISTRATION = "SELECT new com._com.JourneeMondiale.dto.EventRegistrationDTO(er.id, er.participantName, "
+            + "er.participantEmail, er.notes, er.registrationDate, er.status, e.id, e.name, e.description, e.location, "
+            + "e.eventDate, e.registrationDeadline, e.maxParticipants, e.currentParticipants, e.eventType) "
+            + "FROM EventRegistration er JOIN er.event e ";
     
+    // The DTOs always include the event, so fetch it in the same query
+    @EntityGraph(attributePaths = "event")
     @Query("SELECT er FROM EventRegistration er WHERE er.user.id = :userId ORDER BY er.registrationDate DESC")
     List<EventRegistration> findByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT er FROM EventRegistration er WHERE er.event.id = :eventId ORDER BY er.registrationDate DESC")
-    List<EventRegistration> findByEventId(@Param("eventId") Long eventId);
+    // DTO reads: registration and event columns in one query, no entities to hydrate or dirty-check
+    @Query(REGISTRATION + "WHERE e.id = :eventId ORDER BY er.registrationDate DESC")
+    List<EventRegistrationDTO> findDTOsByEventId(@Param("eventId") Long eventId);
     
-    @Query("SELECT er FROM EventRegistration er WHERE er.user.id = :userId AND er.event.id = :eventId")
+    // The user's own registration; the ones made for a group are not counted
+    @Query("SELECT er FROM EventRegistration er WHERE er.user.id = :userId AND er.event.id = :eventId AND er.groupId IS NULL")
     Optional<EventRegistration> findByUserIdAndEventId(@Param("userId") Long userId, @Param("eventId") Long eventId);
     
-    @Query("SELECT er FROM EventRegistration er WHERE er.user.id = :userId AND er.event.eventDate > CURRENT_TIMESTAMP AND er.status = 'CONFIRMED' ORDER BY er.event.eventDate ASC")
-    List<EventRegistration> findUpcomingEventsByUserId(@Param("userId") Long userId);
+    @Query(REGISTRATION + "WHERE er.user.id = :userId AND e.eventDate > CURRENT_TIMESTAMP AND er.status = 'CONFIRMED' ORDER BY e.eventDate ASC")
+    List<EventRegistrationDTO> findUpcomingDTOsByUserId(@Param("userId") Long userId);
     
     @Query("SELECT COUNT(er) FROM EventRegistration er WHERE er.event.id = :eventId AND er.status = 'CONFIRMED'")
     Long countConfirmedRegistrationsByEventId(@Param("eventId") Long eventId);
     
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
+
+    // Conditional, so of two concurrent cancellations only one changes the row and gives the seat back
+    @Modifying
+    @Query("UPDATE EventRegistration er SET er.status = 'CANCELLED' WHERE er.id = :id AND er.status = 'CONFIRMED'")
+    int cancelIfConfirmed(@Param("id") Long id);
+
+    // Lowercased emails, among the given ones, already confirmed for the event
+    @Query("SELECT LOWER(er.participantEmail) FROM EventRegistration er WHERE er.event.id = :eventId "
+            + "AND er.status = 'CONFIRMED' AND LOWER(er.participantEmail) IN :emails")
+    List<String> findConfirmedEmails(@Param("eventId") Long eventId, @Param("emails") Collection<String> emails);
 }
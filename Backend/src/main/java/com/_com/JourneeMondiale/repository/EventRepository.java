@@ -1,30 +1,74 @@
 package com._com.JourneeMondiale.repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com._com.JourneeMondiale.dto.EventListingDTO;
 import com._com.JourneeMondiale.model.Event;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventQueryRepository {
+
+    String LISTING = "SELECT new com._com.JourneeMondiale.dto.EventListingDTO(e.id, e.name, e.description, e.location, "
+            + "e.eventDate, e.registrationDeadline, e.maxParticipants, e.currentParticipants, e.eventType, e.isActive, "
+            + "e.createdAt, e.updatedAt) FROM Event e ";
     
     @Query("SELECT e FROM Event e WHERE e.isActive = true ORDER BY e.eventDate ASC")
     List<Event> findAllActiveEvents();
     
-    @Query("SELECT e FROM Event e WHERE e.isActive = true AND e.eventDate > :currentDate AND e.registrationDeadline > :currentDate ORDER BY e.eventDate ASC")
-    List<Event> findUpcomingOpenEvents(@Param("currentDate") LocalDateTime currentDate);
-    
-    @Query("SELECT e FROM Event e WHERE e.isActive = true AND e.eventDate > :currentDate ORDER BY e.eventDate ASC")
-    List<Event> findUpcomingEvents(@Param("currentDate") LocalDateTime currentDate);
+    // States are kept current by EventLifecycleService, so listings need no clock comparison
+    @Query("SELECT e FROM Event e WHERE e.isActive = true AND e.lifecycleState IN :states ORDER BY e.eventDate ASC")
+    List<Event> findActiveEventsInStates(@Param("states") Collection<Event.LifecycleState> states);
+
+    // Listing projections: one query, no entities and no lazy registrations to trip over
+    @Query(LISTING + "WHERE e.isActive = true AND e.lifecycleState IN :states ORDER BY e.eventDate ASC")
+    List<EventListingDTO> findListingsInStates(@Param("states") Collection<Event.LifecycleState> states);
+
+    @Query(LISTING + "WHERE e.id = :id")
+    Optional<EventListingDTO> findListingById(@Param("id") Long id);
+
+    @Query(LISTING + "WHERE e.isActive = true")
+    List<EventListingDTO> findActiveListings();
+
+    @Query(LISTING + "WHERE e.id IN :ids")
+    List<EventListingDTO> findListingsByIds(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT e FROM Event e WHERE e.location LIKE %:location% AND e.isActive = true ORDER BY e.eventDate ASC")
     List<Event> findEventsByLocation(@Param("location") String location);
     
     @Query("SELECT e FROM Event e WHERE e.eventType = :eventType AND e.isActive = true ORDER BY e.eventDate ASC")
     List<Event> findEventsByType(@Param("eventType") String eventType);
+
+    // Only succeeds (returns 1) while enough seats are left; the row lock serializes concurrent reservations
+    @Modifying
+    @Query("UPDATE Event e SET e.currentParticipants = COALESCE(e.currentParticipants, 0) + :seats WHERE e.id = :id AND COALESCE(e.currentParticipants, 0) + :seats <= e.maxParticipants")
+    int tryReserveSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.currentParticipants = e.currentParticipants - 1 WHERE e.id = :id AND e.currentParticipants > 0")
+    int releaseSeat(@Param("id") Long id);
+
+    // [id, registrationDeadline, eventDate, lifecycleState] of the events the lifecycle timers still have to move
+    @Query("SELECT e.id, e.registrationDeadline, e.eventDate, e.lifecycleState FROM Event e "
+            + "WHERE e.isActive = true AND (e.lifecycleState IS NULL OR e.lifecycleState <> :past)")
+    List<Object[]> findLifecycleSchedules(@Param("past") Event.LifecycleState past);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.lifecycleState = :state WHERE e.id IN :ids")
+    int updateLifecycleStates(@Param("ids") Collection<Long> ids, @Param("state") Event.LifecycleState state);
+
+    // [id, maxParticipants, currentParticipants, lifecycleState, isActive] for the occupancy stream
+    @Query("SELECT e.id, e.maxParticipants, COALESCE(e.currentParticipants, 0), e.lifecycleState, e.isActive FROM Event e WHERE e.id IN :ids")
+    List<Object[]> findOccupancies(@Param("ids") Collection<Long> ids);
+
+    // [id, maxParticipants, currentParticipants] for clearing the in-memory full flags
+    @Query("SELECT e.id, e.maxParticipants, COALESCE(e.currentParticipants, 0) FROM Event e WHERE e.isActive = true")
+    List<Object[]> findActiveCapacities();
 }
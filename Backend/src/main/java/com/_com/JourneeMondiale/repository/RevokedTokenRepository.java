@@ -0,0 +1,36 @@
+package com._com.JourneeMondiale.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com._com.JourneeMondiale.model.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    // Rows after the cursor that are either new (above lastSeenId) or recent enough to have committed late
+    @Query("SELECT r FROM RevokedToken r WHERE r.id > :after "
+           + "AND (r.id > :lastSeenId OR r.revokedAt >= :since) ORDER BY r.id")
+    List<RevokedToken> findUnseen(@Param("after") Long after,
+                                  @Param("lastSeenId") Long lastSeenId,
+                                  @Param("since") LocalDateTime since,
+                                  Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM RevokedToken r")
+    Long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
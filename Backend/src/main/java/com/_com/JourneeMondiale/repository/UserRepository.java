@@ -1,11 +1,17 @@
 package com._com.JourneeMondiale.repository;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com._com.JourneeMondiale.model.User;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface  UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
@@ -14,4 +20,16 @@ public interface  UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsernameAndEmail(String username, String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Query("SELECT COALESCE(u.securityVersion, 0) FROM User u WHERE u.id = :id")
+    Optional<Long> findSecurityVersionById(@Param("id") Long id);
+
+    // Locked until the transaction ends, so one user's concurrent registrations run one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findForUpdateById(@Param("id") Long id);
+
+    // [username, email] pairs for the in-memory availability index
+    @Query("SELECT u.username, u.email FROM User u")
+    List<Object[]> findAllUsernamesAndEmails();
 }
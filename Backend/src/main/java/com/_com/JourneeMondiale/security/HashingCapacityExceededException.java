@@ -0,0 +1,20 @@
+package com._com.JourneeMondiale.security;
+
+/**
+ * Thrown when the password hashing pool and its queue are full.
+ * Callers should answer 503 with a Retry-After header instead of waiting.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private final long retryAfterSeconds;
+
+  public HashingCapacityExceededException(long retryAfterSeconds) {
+    super("Too many sign-in attempts in progress, please retry shortly");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -9,17 +9,19 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com._com.JourneeMondiale.security.PublicRoutes;
+import com._com.JourneeMondiale.security.services.SecurityVersionRegistry;
+import com._com.JourneeMondiale.security.services.UserDetailsImpl;
 import com._com.JourneeMondiale.security.services.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-@Component
 public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private JwtUtils jwtUtils;
@@ -27,26 +29,32 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private UserDetailsServiceImpl userDetailsService;
 
+  @Autowired
+  private SecurityVersionRegistry securityVersions;
+
+  @Autowired
+  private PublicRoutes publicRoutes;
+
+  @Autowired
+  private TokenRevocationStore revocationStore;
+
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
     
-    // Skip JWT processing only for signin/signup endpoints
-    if (request.getServletPath().equals("/api/auth/signin") || 
-        request.getServletPath().equals("/api/auth/signup")) {
+    // Public routes never look at the principal: skip cookie parsing and token verification
+    if (publicRoutes.isPublic(request)) {
       filterChain.doFilter(request, response);
       return;
     }
     
     try {
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        
+      Claims claims = jwtUtils.getVerifiedClaims(jwt);
+      UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
+      if (userDetails != null) {
         UsernamePasswordAuthenticationToken authentication = 
             new UsernamePasswordAuthenticationToken(userDetails,
                                                     null,
@@ -63,6 +71,30 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
+  private UserDetails resolvePrincipal(Claims claims) {
+    if (revocationStore.isRevoked(claims.getId())) {
+      logger.debug("Rejecting revoked token {}", claims.getId());
+      return null;
+    }
+
+    if (!UserDetailsImpl.hasPrincipalClaims(claims)) {
+      // Token issued before principals were embedded in claims
+      return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
+    if (!UserDetailsImpl.hasKnownRole(claims)) {
+      logger.debug("Rejecting token {} without a known role", claims.getId());
+      return null;
+    }
+
+    UserDetailsImpl userDetails = UserDetailsImpl.build(claims);
+    if (!securityVersions.isCurrent(userDetails.getId(), userDetails.getSecurityVersion())) {
+      logger.debug("Rejecting token of user {} issued before its last security change", userDetails.getId());
+      return null;
+    }
+    return userDetails;
+  }
+
   private String parseJwt(HttpServletRequest request) {
     String jwt = jwtUtils.getJwtFromCookies(request);
     return jwt;
@@ -2,9 +2,12 @@ package com._com.JourneeMondiale.security.Jwt;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Component;
@@ -12,13 +15,17 @@ import org.springframework.web.util.WebUtils;
 
 import com._com.JourneeMondiale.security.services.UserDetailsImpl;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -35,6 +42,20 @@ public class JwtUtils {
   @Value("${JourneeMondiale.app.jwtCookieName}")
   private String jwtCookie;
 
+  @Autowired
+  private VerifiedTokenCache tokenCache;
+
+  private Key signingKey;
+
+  private JwtParser jwtParser;
+
+  @PostConstruct
+  public void init() {
+    // Decode the secret and build the (thread-safe) parser once instead of on every call
+    signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+  }
+
   public String getJwtFromCookies(HttpServletRequest request) {
     Cookie cookie = WebUtils.getCookie(request, jwtCookie);
     if (cookie != null) {
@@ -45,7 +66,7 @@ public class JwtUtils {
   }
 
   public ResponseCookie generateJwtCookie(UserDetailsImpl userPrincipal) {
-    String jwt = generateTokenFromUsername(userPrincipal.getUsername());
+    String jwt = generateTokenFromUsername(userPrincipal.getUsername(), userPrincipal.toClaims());
     ResponseCookie cookie = ResponseCookie.from(jwtCookie, jwt).path("/api").maxAge(24 * 60 * 60).httpOnly(true).build();
     return cookie;
   }
@@ -56,17 +77,44 @@ public class JwtUtils {
   }
 
   public String getUserNameFromJwtToken(String token) {
-    return Jwts.parserBuilder().setSigningKey(key()).build()
-               .parseClaimsJws(token).getBody().getSubject();
+    return jwtParser.parseClaimsJws(token).getBody().getSubject();
   }
 
-  private Key key() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+  /**
+   * Verifies the token and returns its claims, or null if it is invalid.
+   * The signature is checked at most once per distinct token until it expires.
+   */
+  public Claims getVerifiedClaims(String authToken) {
+    if (authToken == null || authToken.isEmpty()) {
+      return null;
+    }
+    String tokenHash = tokenCache.hash(authToken);
+    Claims claims = tokenCache.get(tokenHash);
+    if (claims != null) {
+      return claims;
+    }
+    try {
+      claims = jwtParser.parseClaimsJws(authToken).getBody();
+      tokenCache.put(tokenHash, claims);
+      return claims;
+    } catch (MalformedJwtException e) {
+      logger.error("Invalid JWT token: {}", e.getMessage());
+    } catch (ExpiredJwtException e) {
+      logger.error("JWT token is expired: {}", e.getMessage());
+    } catch (UnsupportedJwtException e) {
+      logger.error("JWT token is unsupported: {}", e.getMessage());
+    } catch (IllegalArgumentException e) {
+      logger.error("JWT claims string is empty: {}", e.getMessage());
+    } catch (JwtException e) {
+      logger.error("Invalid JWT signature: {}", e.getMessage());
+    }
+
+    return null;
   }
 
   public boolean validateJwtToken(String authToken) {
     try {
-      Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
+      jwtParser.parse(authToken);
       return true;
     } catch (MalformedJwtException e) {
       logger.error("Invalid JWT token: {}", e.getMessage());
@@ -81,12 +129,18 @@ public class JwtUtils {
     return false;
   }
 
-  public String generateTokenFromUsername(String username) {   
+  public String generateTokenFromUsername(String username) {
+    return generateTokenFromUsername(username, Map.of());
+  }
+
+  public String generateTokenFromUsername(String username, Map<String, Object> claims) {
     return Jwts.builder()
+               .addClaims(claims)
+               .setId(UUID.randomUUID().toString())
                .setSubject(username)
                .setIssuedAt(new Date())
                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-               .signWith(key(), SignatureAlgorithm.HS256)
+               .signWith(signingKey, SignatureAlgorithm.HS256)
                .compact();
   }
 }
\ No newline at end of file
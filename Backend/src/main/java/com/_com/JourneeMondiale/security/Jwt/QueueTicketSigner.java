@@ -0,0 +1,94 @@
+package com._com.JourneeMondiale.security.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Signs and verifies waiting-room tickets. They are JWTs too, but signed with a key
+ * derived from the JWT secret, so a ticket can never pass as a session token (and
+ * the other way around).
+ */
+@Component
+public class QueueTicketSigner {
+
+  private static final String EVENT_ID = "evt";
+
+  private static final String SEQUENCE = "seq";
+
+  private static final String QUEUE_ID = "qid";
+
+  @Value("${jwt.secret}")
+  private String jwtSecret;
+
+  private Key signingKey;
+
+  private JwtParser parser;
+
+  /**
+   * @param userId user the ticket was issued to
+   * @param eventId event whose queue it belongs to
+   * @param queueId instance of that queue, which only exists on the node that issued the ticket
+   * @param sequence place in that queue, admitted once the queue has advanced past it
+   */
+  public record Ticket(Long userId, Long eventId, String queueId, long sequence) {
+  }
+
+  @PostConstruct
+  public void init() {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(Decoders.BASE64.decode(jwtSecret));
+      digest.update("queue-ticket".getBytes(StandardCharsets.US_ASCII));
+      signingKey = Keys.hmacShaKeyFor(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+  }
+
+  public String sign(Ticket ticket, long ttlMs) {
+    long now = System.currentTimeMillis();
+    return Jwts.builder()
+        .setSubject(String.valueOf(ticket.userId()))
+        .claim(EVENT_ID, ticket.eventId())
+        .claim(QUEUE_ID, ticket.queueId())
+        .claim(SEQUENCE, ticket.sequence())
+        .setIssuedAt(new Date(now))
+        .setExpiration(new Date(now + ttlMs))
+        .signWith(signingKey, SignatureAlgorithm.HS256)
+        .compact();
+  }
+
+  /**
+   * Returns the ticket, or null if it is missing, forged or expired.
+   */
+  public Ticket verify(String token) {
+    if (token == null || token.isEmpty()) {
+      return null;
+    }
+    try {
+      Claims claims = parser.parseClaimsJws(token).getBody();
+      return new Ticket(Long.valueOf(claims.getSubject()),
+          claims.get(EVENT_ID, Number.class).longValue(),
+          claims.get(QUEUE_ID, String.class),
+          claims.get(SEQUENCE, Number.class).longValue());
+    } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com._com.JourneeMondiale.security.Jwt;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com._com.JourneeMondiale.model.RevokedToken;
+import com._com.JourneeMondiale.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Revoked token ids, persisted in {@code revoked_tokens} and mirrored in memory so the
+ * filter can check membership in O(1) without a query. Other replicas pick up new
+ * revocations on their next poll; entries disappear once the token would have expired anyway.
+ *
+ * A revocation can commit after one with a higher id was already read, so each poll also
+ * re-reads the rows revoked in the last {@code overlapMs}; remembering a jti twice is harmless.
+ * overlapMs must exceed the longest revoking transaction plus the clock skew between replicas.
+ */
+@Component
+public class TokenRevocationStore {
+  private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+  private static final int PAGE_SIZE = 500;
+
+  // jti -> expiry in epoch millis
+  private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+  private final RevokedTokenRepository repository;
+
+  private final long overlapMs;
+
+  private volatile long lastSeenId;
+
+  public TokenRevocationStore(RevokedTokenRepository repository, MeterRegistry meterRegistry,
+                              @Value("${JourneeMondiale.app.revocationOverlapMs:60000}") long overlapMs) {
+    this.repository = repository;
+    this.overlapMs = overlapMs;
+    Gauge.builder("jwt.revoked.tokens", revoked, Map::size).register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void init() {
+    lastSeenId = repository.findMaxId();
+    repository.findByExpiresAtAfter(LocalDateTime.now()).forEach(this::remember);
+  }
+
+  public boolean isRevoked(String jti) {
+    return jti != null && revoked.containsKey(jti);
+  }
+
+  public void revoke(String jti, Date expiresAt) {
+    if (jti == null || expiresAt == null || isRevoked(jti)) {
+      return;
+    }
+    revoked.put(jti, expiresAt.getTime());
+    try {
+      repository.save(new RevokedToken(jti, toDateTime(expiresAt.getTime())));
+    } catch (DataIntegrityViolationException e) {
+      // Already revoked by another request or replica
+      logger.debug("Token {} was already revoked", jti);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${JourneeMondiale.app.revocationPollMs:1000}")
+  public synchronized void poll() {
+    try {
+      LocalDateTime since = toDateTime(System.currentTimeMillis() - overlapMs);
+      long after = 0;
+      List<RevokedToken> tokens;
+      do {
+        tokens = repository.findUnseen(after, lastSeenId, since, PageRequest.ofSize(PAGE_SIZE));
+        for (RevokedToken token : tokens) {
+          after = token.getId();
+          lastSeenId = Math.max(lastSeenId, token.getId());
+          remember(token);
+        }
+      } while (tokens.size() == PAGE_SIZE);
+    } catch (Exception e) {
+      logger.error("Cannot poll revoked tokens: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${JourneeMondiale.app.revocationPurgeMs:60000}")
+  public void purgeExpired() {
+    long now = System.currentTimeMillis();
+    revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    repository.deleteExpired(toDateTime(now));
+  }
+
+  private void remember(RevokedToken token) {
+    long expiresAt = token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    if (expiresAt > System.currentTimeMillis()) {
+      revoked.put(token.getJti(), expiresAt);
+    }
+  }
+
+  private static LocalDateTime toDateTime(long epochMillis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+  }
+}
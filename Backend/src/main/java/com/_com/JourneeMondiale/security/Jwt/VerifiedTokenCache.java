@@ -0,0 +1,129 @@
+package com._com.JourneeMondiale.security.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded cache of already verified JWTs, keyed by the SHA-256 of the token.
+ * Entries are dropped once the token expires, so a hit never extends the
+ * lifetime of a token.
+ */
+@Component
+public class VerifiedTokenCache {
+
+  private final Map<String, CachedClaims> entries = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  private final int maxEntries;
+
+  public VerifiedTokenCache(@Value("${JourneeMondiale.app.jwtCacheMaxEntries:10000}") int maxEntries,
+                            MeterRegistry meterRegistry) {
+    this.maxEntries = maxEntries;
+
+    FunctionCounter.builder("jwt.verification.cache", hits, LongAdder::doubleValue)
+        .tag("result", "hit").register(meterRegistry);
+    FunctionCounter.builder("jwt.verification.cache", misses, LongAdder::doubleValue)
+        .tag("result", "miss").register(meterRegistry);
+    FunctionCounter.builder("jwt.verification.cache.evictions", evictions, LongAdder::doubleValue)
+        .register(meterRegistry);
+    Gauge.builder("jwt.verification.cache.size", entries, Map::size).register(meterRegistry);
+  }
+
+  public String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  public Claims get(String tokenHash) {
+    CachedClaims cached = entries.get(tokenHash);
+    if (cached == null) {
+      misses.increment();
+      return null;
+    }
+    if (cached.isExpired(System.currentTimeMillis())) {
+      entries.remove(tokenHash, cached);
+      evictions.increment();
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return cached.claims();
+  }
+
+  public void put(String tokenHash, Claims claims) {
+    // A limit of 0 disables caching
+    if (maxEntries <= 0 || claims.getExpiration() == null) {
+      return;
+    }
+    if (entries.size() >= maxEntries) {
+      makeRoom();
+    }
+    entries.put(tokenHash, new CachedClaims(claims, claims.getExpiration().getTime()));
+  }
+
+  public void invalidate(String tokenHash) {
+    if (entries.remove(tokenHash) != null) {
+      evictions.increment();
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  // Drop expired tokens first, then arbitrary ones until we are back under 90% of the limit
+  private void makeRoom() {
+    long now = System.currentTimeMillis();
+    int target = maxEntries - Math.max(1, maxEntries / 10);
+    Iterator<CachedClaims> it = entries.values().iterator();
+    while (it.hasNext()) {
+      if (it.next().isExpired(now)) {
+        it.remove();
+        evictions.increment();
+      }
+    }
+    it = entries.values().iterator();
+    while (entries.size() > target && it.hasNext()) {
+      it.next();
+      it.remove();
+      evictions.increment();
+    }
+  }
+
+  private record CachedClaims(Claims claims, long expiresAtMillis) {
+    boolean isExpired(long now) {
+      return now >= expiresAtMillis;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com._com.JourneeMondiale.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fixed-size pool that runs all BCrypt work, so a login burst can only use
+ * {@code poolSize} cores and never ties up every Tomcat worker. Work beyond the
+ * queue limit is rejected immediately with {@link HashingCapacityExceededException}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+  private final ThreadPoolExecutor executor;
+
+  private final long retryAfterSeconds;
+
+  private final Timer encodeTimer;
+
+  private final Timer matchesTimer;
+
+  private final Timer queueWaitTimer;
+
+  private final Counter rejections;
+
+  public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                 @Value("${JourneeMondiale.app.passwordHashing.poolSize:0}") int poolSize,
+                                 @Value("${JourneeMondiale.app.passwordHashing.queueCapacity:64}") int queueCapacity,
+                                 @Value("${JourneeMondiale.app.passwordHashing.retryAfterSeconds:2}") long retryAfterSeconds) {
+    // Default to half the cores so hashing can't starve the rest of the API
+    int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    this.retryAfterSeconds = retryAfterSeconds;
+
+    Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+    Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    encodeTimer = Timer.builder("password.hash.duration").tag("operation", "encode")
+        .publishPercentileHistogram().register(meterRegistry);
+    matchesTimer = Timer.builder("password.hash.duration").tag("operation", "matches")
+        .publishPercentileHistogram().register(meterRegistry);
+    queueWaitTimer = Timer.builder("password.hash.queue.wait")
+        .publishPercentileHistogram().register(meterRegistry);
+    rejections = Counter.builder("password.hash.rejected").register(meterRegistry);
+  }
+
+  public String encode(Callable<String> task) {
+    return run(task, encodeTimer);
+  }
+
+  public boolean matches(Callable<Boolean> task) {
+    return run(task, matchesTimer);
+  }
+
+  private <T> T run(Callable<T> task, Timer timer) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        return timer.recordCallable(task);
+      });
+    } catch (RejectedExecutionException e) {
+      rejections.increment();
+      throw new HashingCapacityExceededException(retryAfterSeconds);
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,78 @@
+package com._com.JourneeMondiale.security;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Routes that are served without authentication. The same precompiled matchers
+ * back the permitAll rules of {@link WebSecurityConfig} and the fast path of the
+ * JWT filter, so the two can't drift apart. Handlers behind these routes must not
+ * depend on the principal.
+ */
+@Component
+public class PublicRoutes {
+
+  private final List<Route> routes;
+
+  private final Counter authenticatedPath;
+
+  public PublicRoutes(@Value("${spring.h2.console.path}") String h2ConsolePath, MeterRegistry meterRegistry) {
+    PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+    this.routes = List.of(
+        new Route("auth.signin", paths.matcher("/api/auth/signin"), meterRegistry),
+        new Route("auth.signup", paths.matcher("/api/auth/signup"), meterRegistry),
+        new Route("auth.availability", paths.matcher(HttpMethod.GET, "/api/auth/availability"), meterRegistry),
+        new Route("subscriptions.webhook", paths.matcher("/api/subscriptions/webhook"), meterRegistry),
+        new Route("donations.recent_supporters", paths.matcher(HttpMethod.GET, "/api/donations/recent-supporters"), meterRegistry),
+        new Route("donations.live_total", paths.matcher(HttpMethod.GET, "/api/donations/live-total"), meterRegistry),
+        new Route("events.list", paths.matcher(HttpMethod.GET, "/api/events"), meterRegistry),
+        new Route("events.upcoming", paths.matcher(HttpMethod.GET, "/api/events/upcoming"), meterRegistry),
+        new Route("events.search", paths.matcher(HttpMethod.GET, "/api/events/search"), meterRegistry),
+        new Route("events.query", paths.matcher(HttpMethod.GET, "/api/events/query"), meterRegistry),
+        new Route("events.stream", paths.matcher(HttpMethod.GET, "/api/events/stream"), meterRegistry),
+        // Numeric ids only, so /api/events/my-registrations is not treated as public
+        new Route("events.detail", paths.matcher(HttpMethod.GET, "/api/events/{id:\\d+}"), meterRegistry),
+        new Route("events.queue.position", paths.matcher(HttpMethod.GET, "/api/events/{id:\\d+}/queue/position"), meterRegistry),
+        new Route("h2.console", paths.matcher(h2ConsolePath + "/**"), meterRegistry));
+    this.authenticatedPath = Counter.builder("auth.filter.requests")
+        .tag("route", "protected")
+        .tag("path", "token")
+        .register(meterRegistry);
+  }
+
+  public RequestMatcher[] matchers() {
+    return routes.stream().map(Route::matcher).toArray(RequestMatcher[]::new);
+  }
+
+  /**
+   * True if the request hits a public route, in which case no token work is needed.
+   */
+  public boolean isPublic(HttpServletRequest request) {
+    for (Route route : routes) {
+      if (route.matcher().matches(request)) {
+        route.fastPath().increment();
+        return true;
+      }
+    }
+    authenticatedPath.increment();
+    return false;
+  }
+
+  private record Route(String name, RequestMatcher matcher, Counter fastPath) {
+    Route(String name, RequestMatcher matcher, MeterRegistry meterRegistry) {
+      this(name, matcher, Counter.builder("auth.filter.requests")
+          .tag("route", name)
+          .tag("path", "fast")
+          .register(meterRegistry));
+    }
+  }
+}
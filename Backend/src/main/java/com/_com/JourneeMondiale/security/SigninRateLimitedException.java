@@ -0,0 +1,20 @@
+package com._com.JourneeMondiale.security;
+
+/**
+ * Thrown when a sign-in attempt exceeds the per-account or per-IP budget.
+ * Callers should answer 429 with a Retry-After header.
+ */
+public class SigninRateLimitedException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private final long retryAfterSeconds;
+
+  public SigninRateLimitedException(long retryAfterSeconds) {
+    super("Too many sign-in attempts, please retry later");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
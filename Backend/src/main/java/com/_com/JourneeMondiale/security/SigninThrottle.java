@@ -0,0 +1,88 @@
+package com._com.JourneeMondiale.security;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rate limits sign-in attempts per client IP and per username before any user
+ * lookup or BCrypt work happens, so a credential-stuffing burst is turned away
+ * with a map lookup. Behind a reverse proxy, set
+ * {@code server.forward-headers-strategy=native} and restrict
+ * {@code server.tomcat.remoteip.internal-proxies} to the proxy's address, otherwise
+ * every client shares the proxy's IP and its budget.
+ */
+@Component
+public class SigninThrottle {
+
+  private final StripedTokenBuckets byIp;
+
+  private final StripedTokenBuckets byUsername;
+
+  private final Counter ipRejections;
+
+  private final Counter usernameRejections;
+
+  public SigninThrottle(MeterRegistry meterRegistry,
+                        @Value("${JourneeMondiale.app.signinThrottle.stripes:64}") int stripes,
+                        @Value("${JourneeMondiale.app.signinThrottle.maxKeysPerStripe:1024}") int maxKeysPerStripe,
+                        @Value("${JourneeMondiale.app.signinThrottle.ip.capacity:30}") int ipCapacity,
+                        @Value("${JourneeMondiale.app.signinThrottle.ip.refillPerMinute:30}") int ipRefillPerMinute,
+                        @Value("${JourneeMondiale.app.signinThrottle.username.capacity:5}") int usernameCapacity,
+                        @Value("${JourneeMondiale.app.signinThrottle.username.refillPerMinute:5}") int usernameRefillPerMinute) {
+    this.byIp = new StripedTokenBuckets(stripes, maxKeysPerStripe, ipCapacity, ipRefillPerMinute);
+    this.byUsername = new StripedTokenBuckets(stripes, maxKeysPerStripe, usernameCapacity, usernameRefillPerMinute);
+
+    ipRejections = Counter.builder("auth.signin.throttled").tag("key", "ip").register(meterRegistry);
+    usernameRejections = Counter.builder("auth.signin.throttled").tag("key", "username").register(meterRegistry);
+    Gauge.builder("auth.signin.throttle.buckets", byIp, StripedTokenBuckets::size).tag("key", "ip").register(meterRegistry);
+    Gauge.builder("auth.signin.throttle.buckets", byUsername, StripedTokenBuckets::size).tag("key", "username").register(meterRegistry);
+  }
+
+  /**
+   * Takes one attempt from both the IP and the username budget. Both are checked before
+   * either is spent, so an attempt turned away by one budget costs nothing from the other.
+   *
+   * @throws SigninRateLimitedException if either budget is exhausted
+   */
+  public void acquire(String username, String clientIp) {
+    long now = System.nanoTime();
+    String usernameKey = username != null ? username.trim().toLowerCase(Locale.ROOT) : null;
+    // IP first: a sprayed attack over many usernames is stopped without touching the username buckets
+    if (clientIp != null) {
+      rejectIfWaiting(byIp.availableIn(clientIp, now), ipRejections);
+    }
+    if (usernameKey != null) {
+      rejectIfWaiting(byUsername.availableIn(usernameKey, now), usernameRejections);
+    }
+
+    if (clientIp != null) {
+      rejectIfWaiting(byIp.tryAcquire(clientIp, now), ipRejections);
+    }
+    if (usernameKey != null) {
+      long wait = byUsername.tryAcquire(usernameKey, now);
+      if (wait > 0 && clientIp != null) {
+        // Spent concurrently since the check above
+        byIp.giveBack(clientIp, now);
+      }
+      rejectIfWaiting(wait, usernameRejections);
+    }
+  }
+
+  private static void rejectIfWaiting(long waitNanos, Counter rejections) {
+    if (waitNanos > 0) {
+      rejections.increment();
+      throw new SigninRateLimitedException(toRetryAfterSeconds(waitNanos));
+    }
+  }
+
+  private static long toRetryAfterSeconds(long waitNanos) {
+    return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+  }
+}
@@ -0,0 +1,207 @@
+package com._com.JourneeMondiale.security;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets keyed by string, spread over lock stripes so unrelated keys don't
+ * contend. Each stripe keeps at most {@code maxKeysPerStripe} buckets, so memory stays
+ * bounded whatever keys attackers send. A new key always gets a bucket: the least
+ * recently used one of its stripe is evicted in O(1), so spraying keys can never lock
+ * out keys that are not tracked yet.
+ *
+ * An evicted bucket that still owed tokens leaves its debt, as the time it would have
+ * been full again, in a small count-min sketch per stripe. A key created later starts
+ * with the debt the sketch remembers for it, so spraying keys cannot reset the budget
+ * of a key that is still paying off earlier attempts either. The sketch can only
+ * overestimate, through hash collisions with other indebted keys; a new key therefore
+ * always keeps at least one token, which also caps what an eviction can give back.
+ */
+class StripedTokenBuckets {
+
+  private static final int SKETCH_DEPTH = 2;
+
+  private static final int[] SKETCH_SEEDS = { 0x9E3779B1, 0x85EBCA77 };
+
+  private final Stripe[] stripes;
+
+  private final int maxKeysPerStripe;
+
+  private final double capacity;
+
+  private final double tokensPerNano;
+
+  StripedTokenBuckets(int stripeCount, int maxKeysPerStripe, int capacity, int refillPerMinute) {
+    this.stripes = new Stripe[Math.max(1, stripeCount)];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe(Math.max(1, maxKeysPerStripe));
+    }
+    this.maxKeysPerStripe = Math.max(1, maxKeysPerStripe);
+    this.capacity = capacity;
+    this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+  }
+
+  /**
+   * Takes one token for {@code key}.
+   *
+   * @return 0 if a token was available, otherwise the nanoseconds until the next one
+   */
+  long tryAcquire(String key, long nowNanos) {
+    Stripe stripe = stripeFor(key);
+    synchronized (stripe) {
+      Bucket bucket = stripe.buckets.get(key);
+      if (bucket == null) {
+        if (stripe.buckets.size() >= maxKeysPerStripe) {
+          evictEldest(stripe, nowNanos);
+        }
+        bucket = new Bucket(startingTokens(stripe, key, nowNanos), nowNanos);
+        stripe.buckets.put(key, bucket);
+      } else {
+        bucket.refill(nowNanos, capacity, tokensPerNano);
+      }
+      if (bucket.tokens >= 1) {
+        bucket.tokens -= 1;
+        return 0;
+      }
+      return nanosUntil(1 - bucket.tokens);
+    }
+  }
+
+  /**
+   * Same answer as {@link #tryAcquire} without taking the token.
+   */
+  long availableIn(String key, long nowNanos) {
+    Stripe stripe = stripeFor(key);
+    synchronized (stripe) {
+      Bucket bucket = stripe.buckets.get(key);
+      double tokens;
+      if (bucket == null) {
+        tokens = startingTokens(stripe, key, nowNanos);
+      } else {
+        bucket.refill(nowNanos, capacity, tokensPerNano);
+        tokens = bucket.tokens;
+      }
+      return tokens >= 1 ? 0 : nanosUntil(1 - tokens);
+    }
+  }
+
+  /**
+   * Returns a token taken by {@link #tryAcquire} for an attempt that did not go ahead.
+   */
+  void giveBack(String key, long nowNanos) {
+    Stripe stripe = stripeFor(key);
+    synchronized (stripe) {
+      Bucket bucket = stripe.buckets.get(key);
+      if (bucket != null) {
+        bucket.refill(nowNanos, capacity, tokensPerNano);
+        bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+      }
+    }
+  }
+
+  int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.buckets.size();
+      }
+    }
+    return size;
+  }
+
+  private Stripe stripeFor(String key) {
+    return stripes[Math.floorMod(spread(key.hashCode()), stripes.length)];
+  }
+
+  // The head of the access-ordered map is the least recently used bucket
+  private void evictEldest(Stripe stripe, long nowNanos) {
+    Iterator<Map.Entry<String, Bucket>> eldest = stripe.buckets.entrySet().iterator();
+    Map.Entry<String, Bucket> entry = eldest.next();
+    eldest.remove();
+    Bucket bucket = entry.getValue();
+    bucket.refill(nowNanos, capacity, tokensPerNano);
+    if (bucket.tokens < capacity) {
+      stripe.rememberDebt(entry.getKey(), saturatedAdd(nowNanos, nanosUntil(capacity - bucket.tokens)));
+    }
+  }
+
+  // A full bucket, less whatever debt an evicted bucket of the same key may have left behind,
+  // but always one token: a sketch saturated by sprayed keys must not lock out every new key
+  private double startingTokens(Stripe stripe, String key, long nowNanos) {
+    long fullAt = stripe.debtFullAt(key);
+    if (fullAt <= nowNanos) {
+      return capacity;
+    }
+    return Math.max(Math.min(1, capacity), capacity - ((double) fullAt - nowNanos) * tokensPerNano);
+  }
+
+  private static long saturatedAdd(long a, long b) {
+    long sum = a + b;
+    return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+  }
+
+  private long nanosUntil(double missingTokens) {
+    return tokensPerNano > 0 ? (long) Math.ceil(missingTokens / tokensPerNano) : Long.MAX_VALUE;
+  }
+
+  // Keys like "user1", "user2" have close hash codes; mix the high bits in before picking a stripe
+  private static int spread(int h) {
+    return h ^ (h >>> 16);
+  }
+
+  private static final class Stripe {
+    // Access order, least recently used first
+    final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Count-min sketch of the time evicted buckets are full again, one row per hash function
+    final long[][] fullAtNanos;
+
+    Stripe(int width) {
+      fullAtNanos = new long[SKETCH_DEPTH][width];
+      for (long[] row : fullAtNanos) {
+        Arrays.fill(row, Long.MIN_VALUE);
+      }
+    }
+
+    void rememberDebt(String key, long fullAt) {
+      for (int row = 0; row < SKETCH_DEPTH; row++) {
+        int column = column(key, row);
+        fullAtNanos[row][column] = Math.max(fullAtNanos[row][column], fullAt);
+      }
+    }
+
+    long debtFullAt(String key) {
+      long fullAt = Long.MAX_VALUE;
+      for (int row = 0; row < SKETCH_DEPTH; row++) {
+        fullAt = Math.min(fullAt, fullAtNanos[row][column(key, row)]);
+      }
+      return fullAt;
+    }
+
+    private int column(String key, int row) {
+      int h = key.hashCode() * SKETCH_SEEDS[row];
+      return Math.floorMod(h ^ (h >>> 15), fullAtNanos[row].length);
+    }
+  }
+
+  private static final class Bucket {
+    double tokens;
+    long lastRefillNanos;
+
+    Bucket(double tokens, long nowNanos) {
+      this.tokens = tokens;
+      this.lastRefillNanos = nowNanos;
+    }
+
+    void refill(long nowNanos, double capacity, double tokensPerNano) {
+      long elapsed = nowNanos - lastRefillNanos;
+      if (elapsed > 0) {
+        tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+        lastRefillNanos = nowNanos;
+      }
+    }
+  }
+}
@@ -2,7 +2,7 @@ package com._com.JourneeMondiale.security;
 
 import java.util.Arrays;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,6 +18,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com._com.JourneeMondiale.exception.ProblemResponses;
 import com._com.JourneeMondiale.security.Jwt.AuthEntryPointJwt;
 import com._com.JourneeMondiale.security.Jwt.AuthTokenFilter;
 
@@ -25,19 +26,30 @@ import com._com.JourneeMondiale.security.Jwt.AuthTokenFilter;
 @EnableMethodSecurity
 public class WebSecurityConfig {
   
-  @Value("${spring.h2.console.path}")
-  private String h2ConsolePath;
-  
   private final AuthEntryPointJwt unauthorizedHandler;
+
+  private final PublicRoutes publicRoutes;
+
+  private final ProblemResponses problems;
   
-  public WebSecurityConfig(AuthEntryPointJwt unauthorizedHandler) {
+  public WebSecurityConfig(AuthEntryPointJwt unauthorizedHandler, PublicRoutes publicRoutes, ProblemResponses problems) {
     this.unauthorizedHandler = unauthorizedHandler;
+    this.publicRoutes = publicRoutes;
+    this.problems = problems;
   }
 
   @Bean
   public AuthTokenFilter authenticationJwtTokenFilter() {
     return new AuthTokenFilter();
   }
+
+  // The JWT filter only belongs in the security chain; keep Boot from also adding it to the servlet chain
+  @Bean
+  public FilterRegistrationBean<AuthTokenFilter> authenticationJwtTokenFilterRegistration(AuthTokenFilter filter) {
+    FilterRegistrationBean<AuthTokenFilter> registration = new FilterRegistrationBean<>(filter);
+    registration.setEnabled(false);
+    return registration;
+  }
   
   @Bean
   public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
@@ -45,22 +57,23 @@ public class WebSecurityConfig {
   }
 
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+    // BCrypt runs on a bounded pool, not on the request thread
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
   }
   
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http.csrf(csrf -> csrf.disable())
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-        .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
+        .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler)
+            .accessDeniedHandler((request, response, denied) -> problems.writeConstant(response, ProblemResponses.FORBIDDEN)))
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> 
-          auth.requestMatchers("/api/auth/signin", "/api/auth/signup").permitAll()
+          auth.requestMatchers(publicRoutes.matchers()).permitAll() // Auth, Stripe webhooks, viewing events, H2 console
               .requestMatchers("/api/admin/**").hasRole("ADMIN")
-              .requestMatchers("/api/subscriptions/webhook").permitAll() // Allow Stripe webhooks
-              .requestMatchers("/api/events", "/api/events/upcoming", "/api/events/{id}").permitAll() // Allow viewing events
-              .requestMatchers(h2ConsolePath + "/**").permitAll()
+              .requestMatchers("/actuator/health").permitAll()
+              .requestMatchers("/actuator/**").hasRole("ADMIN")
               .anyRequest().authenticated()
         );
     // fix H2 database console: Refused to display ' in a frame because it set 'X-Frame-Options' to 'deny'
@@ -0,0 +1,72 @@
+package com._com.JourneeMondiale.security.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. Adds and lookups are lock-free, so it can
+ * be read on request threads while writes are applied. It never reports a false
+ * negative; false positives happen at roughly the rate it was sized for.
+ */
+class BloomFilter {
+
+  private final AtomicLongArray words;
+
+  private final long bitCount;
+
+  private final int hashCount;
+
+  BloomFilter(int expectedEntries, double falsePositiveRate) {
+    long n = Math.max(1, expectedEntries);
+    long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int wordCount = (int) Math.max(1, (bits + 63) / 64);
+    this.words = new AtomicLongArray(wordCount);
+    this.bitCount = (long) wordCount * 64;
+    this.hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  void add(String value) {
+    long h1 = hash(value);
+    long h2 = mix(h1) | 1L;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bitCount);
+      int index = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      if ((words.get(index) & mask) == 0) {
+        words.getAndAccumulate(index, mask, (current, m) -> current | m);
+      }
+    }
+  }
+
+  boolean mightContain(String value) {
+    long h1 = hash(value);
+    long h2 = mix(h1) | 1L;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bitCount);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // 64-bit FNV-1a, finalized so that nearby strings spread over the whole range
+  private static long hash(String value) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001b3L;
+    }
+    return mix(h);
+  }
+
+  // MurmurHash3 fmix64; also used to derive the second hash for double hashing
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
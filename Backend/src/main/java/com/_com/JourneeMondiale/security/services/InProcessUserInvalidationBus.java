@@ -0,0 +1,42 @@
+package com._com.JourneeMondiale.security.services;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Delivers invalidations synchronously to listeners of this JVM only.
+ * Suitable for a single instance and for tests: with several replicas, a password change or
+ * deletion only invalidates tokens on the node that handled it.
+ */
+@Component
+@ConditionalOnProperty(name = "JourneeMondiale.app.userInvalidationBus", havingValue = "in-process", matchIfMissing = true)
+public class InProcessUserInvalidationBus implements UserInvalidationBus {
+
+  private static final Logger logger = LoggerFactory.getLogger(InProcessUserInvalidationBus.class);
+
+  private final List<Consumer<UserInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+  @PostConstruct
+  void warnSingleNodeOnly() {
+    logger.warn("User invalidations are delivered in-process only; set JourneeMondiale.app.userInvalidationBus=jdbc "
+        + "when running more than one replica, or other replicas keep accepting tokens of changed or deleted users");
+  }
+
+  @Override
+  public void publish(UserInvalidation invalidation) {
+    listeners.forEach(listener -> listener.accept(invalidation));
+  }
+
+  @Override
+  public void subscribe(Consumer<UserInvalidation> listener) {
+    listeners.add(listener);
+  }
+}
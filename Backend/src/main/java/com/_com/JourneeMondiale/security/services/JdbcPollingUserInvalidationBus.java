@@ -0,0 +1,120 @@
+package com._com.JourneeMondiale.security.services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com._com.JourneeMondiale.model.UserInvalidationRecord;
+import com._com.JourneeMondiale.repository.UserInvalidationRecordRepository;
+
+/**
+ * Shares invalidations between replicas through the {@code user_invalidations} table.
+ * Local listeners are notified immediately; other nodes pick the row up on their next poll.
+ *
+ * Ids are handed out at insert but rows become visible at commit, so a row can show up
+ * below ids already read. Each poll therefore also re-reads the rows published in the last
+ * {@code overlapMs}, and skips the ones it already delivered. overlapMs must exceed the
+ * longest publishing transaction plus the clock skew between replicas.
+ */
+@Component
+@ConditionalOnProperty(name = "JourneeMondiale.app.userInvalidationBus", havingValue = "jdbc")
+public class JdbcPollingUserInvalidationBus implements UserInvalidationBus {
+
+  private static final Logger logger = LoggerFactory.getLogger(JdbcPollingUserInvalidationBus.class);
+
+  private static final int PAGE_SIZE = 500;
+
+  private final List<Consumer<UserInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final UserInvalidationRecordRepository repository;
+
+  private final long retentionMs;
+
+  private final long overlapMs;
+
+  private volatile long lastSeenId;
+
+  // Ids delivered within the overlap window -> their publishedAt in epoch millis
+  private final Map<Long, Long> delivered = new HashMap<>();
+
+  public JdbcPollingUserInvalidationBus(UserInvalidationRecordRepository repository,
+                                        @Value("${JourneeMondiale.app.userInvalidationRetentionMs:3600000}") long retentionMs,
+                                        @Value("${JourneeMondiale.app.userInvalidationOverlapMs:60000}") long overlapMs) {
+    this.repository = repository;
+    this.retentionMs = retentionMs;
+    this.overlapMs = overlapMs;
+    // Only changes published after startup matter, the caches start empty
+    this.lastSeenId = repository.findMaxId();
+  }
+
+  @Override
+  public void publish(UserInvalidation invalidation) {
+    repository.save(new UserInvalidationRecord(invalidation.userId(), invalidation.securityVersion(),
+        invalidation.username(), invalidation.email(), nodeId, toDateTime(invalidation.publishedAtMillis())));
+    deliver(invalidation);
+  }
+
+  @Override
+  public void subscribe(Consumer<UserInvalidation> listener) {
+    listeners.add(listener);
+  }
+
+  @Scheduled(fixedDelayString = "${JourneeMondiale.app.userInvalidationPollMs:1000}")
+  public synchronized void poll() {
+    try {
+      long windowStart = System.currentTimeMillis() - overlapMs;
+      LocalDateTime since = toDateTime(windowStart);
+      long after = 0;
+      List<UserInvalidationRecord> records;
+      do {
+        records = repository.findUnseen(after, lastSeenId, since, PageRequest.ofSize(PAGE_SIZE));
+        for (UserInvalidationRecord record : records) {
+          after = record.getId();
+          lastSeenId = Math.max(lastSeenId, record.getId());
+          long publishedAt = toEpochMillis(record.getPublishedAt());
+          if (delivered.putIfAbsent(record.getId(), publishedAt) == null && !nodeId.equals(record.getOriginNode())) {
+            deliver(new UserInvalidation(record.getUserId(), record.getSecurityVersion(), record.getUsername(),
+                record.getEmail(), publishedAt));
+          }
+        }
+      } while (records.size() == PAGE_SIZE);
+      // Older rows are not read again, unless above lastSeenId and so never delivered
+      delivered.values().removeIf(publishedAt -> publishedAt < windowStart);
+    } catch (Exception e) {
+      logger.error("Cannot poll user invalidations: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${JourneeMondiale.app.userInvalidationRetentionMs:3600000}")
+  public void purge() {
+    repository.deletePublishedBefore(toDateTime(System.currentTimeMillis() - retentionMs));
+  }
+
+  private void deliver(UserInvalidation invalidation) {
+    listeners.forEach(listener -> listener.accept(invalidation));
+  }
+
+  private static long toEpochMillis(LocalDateTime dateTime) {
+    return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private static LocalDateTime toDateTime(long epochMillis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+  }
+}
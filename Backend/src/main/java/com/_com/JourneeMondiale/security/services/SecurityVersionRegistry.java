@@ -0,0 +1,61 @@
+package com._com.JourneeMondiale.security.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com._com.JourneeMondiale.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Last known security version per user id. Tokens carry the version they were
+ * issued with; the database is only consulted when a token is newer than what
+ * this node knows about (or the user has not been seen yet).
+ */
+@Component
+public class SecurityVersionRegistry {
+
+  // Marker for deleted users: every token is older than this
+  public static final long DELETED = Long.MAX_VALUE;
+
+  private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private UserInvalidationBus invalidationBus;
+
+  @PostConstruct
+  public void init() {
+    invalidationBus.subscribe(invalidation -> record(invalidation.userId(), invalidation.securityVersion()));
+  }
+
+  public boolean isCurrent(Long userId, long tokenVersion) {
+    Long known = versions.get(userId);
+    if (known != null) {
+      if (known == tokenVersion) {
+        return true;
+      }
+      if (tokenVersion < known) {
+        // Versions only grow, so an older token can be rejected without a lookup
+        return false;
+      }
+    }
+
+    long current = userRepository.findSecurityVersionById(userId).orElse(DELETED);
+    record(userId, current);
+    return current == tokenVersion;
+  }
+
+  public void record(Long userId, Long version) {
+    if (userId == null) {
+      return;
+    }
+    long value = version != null ? version : 0L;
+    versions.merge(userId, value, Math::max);
+  }
+}
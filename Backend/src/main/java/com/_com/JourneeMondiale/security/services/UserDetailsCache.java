@@ -0,0 +1,134 @@
+package com._com.JourneeMondiale.security.services;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Near-cache of principals in front of {@link UserDetailsServiceImpl}, keyed by username.
+ * Entries are dropped on every node when the {@link UserInvalidationBus} reports a change,
+ * and after a TTL as a safety net in case a notification is lost.
+ */
+@Component
+public class UserDetailsCache {
+
+  private final Map<String, CachedUser> entries = new ConcurrentHashMap<>();
+
+  // Bumped on every invalidation so a load that raced with one is not cached
+  private final AtomicLong invalidationEpoch = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder invalidatedEvictions = new LongAdder();
+
+  private final LongAdder expiredEvictions = new LongAdder();
+
+  private final LongAdder sizeEvictions = new LongAdder();
+
+  private final Timer staleness;
+
+  private final long ttlMs;
+
+  private final int maxEntries;
+
+  public UserDetailsCache(UserInvalidationBus invalidationBus, MeterRegistry meterRegistry,
+                          @Value("${JourneeMondiale.app.userCacheTtlMs:600000}") long ttlMs,
+                          @Value("${JourneeMondiale.app.userCacheMaxEntries:10000}") int maxEntries) {
+    this.ttlMs = ttlMs;
+    this.maxEntries = maxEntries;
+
+    FunctionCounter.builder("user.details.cache", hits, LongAdder::doubleValue)
+        .tag("result", "hit").register(meterRegistry);
+    FunctionCounter.builder("user.details.cache", misses, LongAdder::doubleValue)
+        .tag("result", "miss").register(meterRegistry);
+    Gauge.builder("user.details.cache.hit.ratio", this, UserDetailsCache::hitRatio).register(meterRegistry);
+    Gauge.builder("user.details.cache.size", entries, Map::size).register(meterRegistry);
+    FunctionCounter.builder("user.details.cache.evictions", invalidatedEvictions, LongAdder::doubleValue)
+        .tag("cause", "invalidated").register(meterRegistry);
+    FunctionCounter.builder("user.details.cache.evictions", expiredEvictions, LongAdder::doubleValue)
+        .tag("cause", "expired").register(meterRegistry);
+    FunctionCounter.builder("user.details.cache.evictions", sizeEvictions, LongAdder::doubleValue)
+        .tag("cause", "size").register(meterRegistry);
+    // Time between a change being published and this node dropping its copy
+    staleness = Timer.builder("user.details.cache.staleness")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+
+    invalidationBus.subscribe(this::onInvalidation);
+  }
+
+  public UserDetailsImpl get(String username) {
+    CachedUser cached = entries.get(username);
+    if (cached == null) {
+      misses.increment();
+      return null;
+    }
+    if (System.currentTimeMillis() - cached.loadedAtMillis() > ttlMs) {
+      if (entries.remove(username, cached)) {
+        expiredEvictions.increment();
+      }
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return cached.userDetails();
+  }
+
+  /**
+   * Epoch to read before loading a user, and to hand back to {@link #put}.
+   */
+  public long currentEpoch() {
+    return invalidationEpoch.get();
+  }
+
+  public void put(String username, UserDetailsImpl userDetails, long epochAtLoad) {
+    if (entries.size() >= maxEntries) {
+      makeRoom();
+    }
+    entries.put(username, new CachedUser(userDetails, System.currentTimeMillis()));
+    if (invalidationEpoch.get() != epochAtLoad) {
+      // An invalidation arrived while we were loading; the copy may already be stale
+      entries.remove(username);
+    }
+  }
+
+  public double hitRatio() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0.0 : (double) hitCount / total;
+  }
+
+  private void onInvalidation(UserInvalidation invalidation) {
+    invalidationEpoch.incrementAndGet();
+    if (entries.values().removeIf(cached -> invalidation.userId().equals(cached.userDetails().getId()))) {
+      invalidatedEvictions.increment();
+    }
+    staleness.record(Math.max(0, System.currentTimeMillis() - invalidation.publishedAtMillis()), TimeUnit.MILLISECONDS);
+  }
+
+  private void makeRoom() {
+    int target = maxEntries - Math.max(1, maxEntries / 10);
+    Iterator<CachedUser> it = entries.values().iterator();
+    while (entries.size() > target && it.hasNext()) {
+      it.next();
+      it.remove();
+      sizeEvictions.increment();
+    }
+  }
+
+  private record CachedUser(UserDetailsImpl userDetails, long loadedAtMillis) {
+  }
+}
@@ -1,8 +1,11 @@
 package com._com.JourneeMondiale.security.services;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.time.LocalDateTime;
 
 import org.springframework.security.core.GrantedAuthority;
@@ -12,9 +15,24 @@ import org.springframework.security.core.userdetails.UserDetails;
 import com._com.JourneeMondiale.model.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import io.jsonwebtoken.Claims;
+
 public class UserDetailsImpl implements UserDetails {
   private static final long serialVersionUID = 1L;
 
+  // JWT claim names used to carry the principal between requests
+  public static final String CLAIM_USER_ID = "uid";
+  public static final String CLAIM_EMAIL = "email";
+  public static final String CLAIM_FIRST_NAME = "fn";
+  public static final String CLAIM_LAST_NAME = "ln";
+  public static final String CLAIM_ROLE = "role";
+  public static final String CLAIM_CREATED_AT = "cat";
+  public static final String CLAIM_UPDATED_AT = "uat";
+  public static final String CLAIM_SECURITY_VERSION = "sv";
+
+  // Authorities this application grants; a token claiming anything else was not issued by us
+  private static final Set<String> KNOWN_AUTHORITIES = Set.of("ROLE_USER", "ROLE_ADMIN");
+
   final private Long id;
 
   final private String username;
@@ -34,8 +52,11 @@ public class UserDetailsImpl implements UserDetails {
 
   final private LocalDateTime updatedAt;
 
+  final private long securityVersion;
+
   public UserDetailsImpl(Long id, String username, String email, String firstName, String lastName, String password,
-      Collection<? extends GrantedAuthority> authorities, LocalDateTime createdAt, LocalDateTime updatedAt) {
+      Collection<? extends GrantedAuthority> authorities, LocalDateTime createdAt, LocalDateTime updatedAt,
+      long securityVersion) {
     this.id = id;
     this.username = username;
     this.email = email;
@@ -45,17 +66,11 @@ public class UserDetailsImpl implements UserDetails {
     this.authorities = authorities;
     this.createdAt = createdAt;
     this.updatedAt = updatedAt;
+    this.securityVersion = securityVersion;
   }
 
   public static UserDetailsImpl build(User user) {
-    // Ensure role has ROLE_ prefix for Spring Security
-    String role = user.getRole();
-
-    if (!role.startsWith("ROLE_")) {
-      role = "ROLE_" + role;
-    }
-    
-    List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+    List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(toAuthority(user.getRole())));
 
     return new UserDetailsImpl(
         user.getId(), 
@@ -66,7 +81,66 @@ public class UserDetailsImpl implements UserDetails {
         user.getPassword(), 
         authorities,
         user.getCreatedAt(),
-        user.getUpdatedAt());
+        user.getUpdatedAt(),
+        user.getSecurityVersion() != null ? user.getSecurityVersion() : 0L);
+  }
+
+  /**
+   * Rebuilds the principal from the claims written by {@link #toClaims()}, without a database lookup.
+   * The password is not part of the token, so the result can't be used to authenticate credentials.
+   */
+  public static UserDetailsImpl build(Claims claims) {
+    List<GrantedAuthority> authorities =
+        List.of(new SimpleGrantedAuthority(toAuthority(claims.get(CLAIM_ROLE, String.class))));
+
+    return new UserDetailsImpl(
+        claims.get(CLAIM_USER_ID, Long.class),
+        claims.getSubject(),
+        claims.get(CLAIM_EMAIL, String.class),
+        claims.get(CLAIM_FIRST_NAME, String.class),
+        claims.get(CLAIM_LAST_NAME, String.class),
+        null,
+        authorities,
+        parseDateTime(claims.get(CLAIM_CREATED_AT, String.class)),
+        parseDateTime(claims.get(CLAIM_UPDATED_AT, String.class)),
+        claims.get(CLAIM_SECURITY_VERSION, Long.class));
+  }
+
+  public static boolean hasPrincipalClaims(Claims claims) {
+    return claims.get(CLAIM_USER_ID) != null && claims.get(CLAIM_SECURITY_VERSION) != null;
+  }
+
+  /**
+   * Whether the role claim is present and names a role this application grants. Tokens failing this
+   * check are treated as invalid rather than built into a principal.
+   */
+  public static boolean hasKnownRole(Claims claims) {
+    return claims.get(CLAIM_ROLE) instanceof String role && KNOWN_AUTHORITIES.contains(toAuthority(role));
+  }
+
+  public Map<String, Object> toClaims() {
+    Map<String, Object> claims = new HashMap<>();
+    claims.put(CLAIM_USER_ID, id);
+    claims.put(CLAIM_EMAIL, email);
+    claims.put(CLAIM_FIRST_NAME, firstName);
+    claims.put(CLAIM_LAST_NAME, lastName);
+    claims.put(CLAIM_ROLE, authorities.stream().map(GrantedAuthority::getAuthority).findFirst().orElse(""));
+    claims.put(CLAIM_CREATED_AT, createdAt != null ? createdAt.toString() : null);
+    claims.put(CLAIM_UPDATED_AT, updatedAt != null ? updatedAt.toString() : null);
+    claims.put(CLAIM_SECURITY_VERSION, securityVersion);
+    return claims;
+  }
+
+  // Ensure role has ROLE_ prefix for Spring Security
+  private static String toAuthority(String role) {
+    if (!role.startsWith("ROLE_")) {
+      return "ROLE_" + role;
+    }
+    return role;
+  }
+
+  private static LocalDateTime parseDateTime(String value) {
+    return value != null ? LocalDateTime.parse(value) : null;
   }
 
   @Override
@@ -98,6 +172,10 @@ public class UserDetailsImpl implements UserDetails {
     return updatedAt;
   }
 
+  public long getSecurityVersion() {
+    return securityVersion;
+  }
+
   @Override
   public String getPassword() {
     return password;
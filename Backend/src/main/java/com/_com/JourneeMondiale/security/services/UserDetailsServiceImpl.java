@@ -5,7 +5,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com._com.JourneeMondiale.model.User;
 import com._com.JourneeMondiale.repository.UserRepository;
@@ -15,13 +14,27 @@ public class UserDetailsServiceImpl implements UserDetailsService {
   @Autowired
   UserRepository userRepository;
 
+  @Autowired
+  SecurityVersionRegistry securityVersions;
+
+  @Autowired
+  UserDetailsCache userDetailsCache;
+
   @Override
-  @Transactional
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    UserDetailsImpl cached = userDetailsCache.get(username);
+    if (cached != null) {
+      return cached;
+    }
+
+    long epoch = userDetailsCache.currentEpoch();
     User user = userRepository.findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
-    return UserDetailsImpl.build(user);
+    securityVersions.record(user.getId(), user.getSecurityVersion());
+    UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+    userDetailsCache.put(username, userDetails, epoch);
+    return userDetails;
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com._com.JourneeMondiale.security.services;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com._com.JourneeMondiale.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory Bloom filters of taken usernames and emails. A negative answer is
+ * definite, so the availability check only goes to the database when the filter
+ * says a value might be taken. Signup does not pre-check at all: the unique
+ * constraints on the users table decide.
+ *
+ * New and renamed users are added from the {@link UserInvalidationBus}, which
+ * carries their username and email, so other replicas learn about them too
+ * without loading the user. Deleted users can't be removed from a Bloom filter;
+ * the periodic rebuild drops them.
+ */
+@Component
+public class UserIdentityIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserIdentityIndex.class);
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private UserInvalidationBus invalidationBus;
+
+  @Value("${JourneeMondiale.app.userIndexExpectedEntries:100000}")
+  private int expectedEntries;
+
+  @Value("${JourneeMondiale.app.userIndexFalsePositiveRate:0.01}")
+  private double falsePositiveRate;
+
+  private volatile Filters current;
+
+  // Set while a rebuild is loading, so adds made meanwhile are not lost on the swap
+  private volatile Filters next;
+
+  private final Counter definitelyFree;
+
+  private final Counter mightBeTaken;
+
+  public UserIdentityIndex(MeterRegistry meterRegistry) {
+    this.definitelyFree = Counter.builder("user.identity.index").tag("result", "negative").register(meterRegistry);
+    this.mightBeTaken = Counter.builder("user.identity.index").tag("result", "maybe").register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void init() {
+    rebuild();
+    invalidationBus.subscribe(this::onInvalidation);
+  }
+
+  @Scheduled(fixedDelayString = "${JourneeMondiale.app.userIndexRebuildMs:3600000}",
+             initialDelayString = "${JourneeMondiale.app.userIndexRebuildMs:3600000}")
+  public void rebuild() {
+    Filters rebuilt = new Filters(expectedEntries, falsePositiveRate);
+    next = rebuilt;
+    List<Object[]> identities = userRepository.findAllUsernamesAndEmails();
+    for (Object[] identity : identities) {
+      rebuilt.add((String) identity[0], (String) identity[1]);
+    }
+    current = rebuilt;
+    next = null;
+    if (identities.size() > expectedEntries) {
+      logger.warn("User identity index holds {} users but is sized for {}, false positives will rise",
+          identities.size(), expectedEntries);
+    }
+  }
+
+  public void add(String username, String email) {
+    current.add(username, email);
+    Filters pending = next;
+    if (pending != null) {
+      pending.add(username, email);
+    }
+  }
+
+  public boolean mightHaveUsername(String username) {
+    return record(username != null && current.usernames.mightContain(normalize(username)));
+  }
+
+  public boolean mightHaveEmail(String email) {
+    return record(email != null && current.emails.mightContain(normalize(email)));
+  }
+
+  /**
+   * Exact check: the filter first, the database only on a possible hit.
+   */
+  public boolean isUsernameTaken(String username) {
+    return mightHaveUsername(username) && userRepository.existsByUsername(username);
+  }
+
+  public boolean isEmailTaken(String email) {
+    return mightHaveEmail(email) && userRepository.existsByEmail(email);
+  }
+
+  private boolean record(boolean maybe) {
+    (maybe ? mightBeTaken : definitelyFree).increment();
+    return maybe;
+  }
+
+  private void onInvalidation(UserInvalidation invalidation) {
+    if (invalidation.securityVersion() == SecurityVersionRegistry.DELETED) {
+      return;
+    }
+    add(invalidation.username(), invalidation.email());
+  }
+
+  // Lower-cased on both sides: that can only add false positives, never hide a taken name
+  private static String normalize(String value) {
+    return value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Filters {
+    final BloomFilter usernames;
+    final BloomFilter emails;
+
+    Filters(int expectedEntries, double falsePositiveRate) {
+      this.usernames = new BloomFilter(expectedEntries, falsePositiveRate);
+      this.emails = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    void add(String username, String email) {
+      if (username != null) {
+        usernames.add(normalize(username));
+      }
+      if (email != null) {
+        emails.add(normalize(email));
+      }
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com._com.JourneeMondiale.security.services;
+
+import com._com.JourneeMondiale.model.User;
+
+/**
+ * Notification that a user changed and cached copies of it must be dropped.
+ *
+ * @param userId id of the changed user
+ * @param securityVersion security version after the change ({@link SecurityVersionRegistry#DELETED} on deletion)
+ * @param username username after the change, null on deletion
+ * @param email email after the change, null on deletion
+ * @param publishedAtMillis wall-clock time the change was published, used to measure propagation lag
+ */
+public record UserInvalidation(Long userId, long securityVersion, String username, String email,
+                               long publishedAtMillis) {
+
+  public static UserInvalidation of(Long userId, Long securityVersion) {
+    return new UserInvalidation(userId, securityVersion != null ? securityVersion : 0L, null, null,
+        System.currentTimeMillis());
+  }
+
+  // Carries the identity so listeners don't each have to load the user again
+  public static UserInvalidation of(User user) {
+    return new UserInvalidation(user.getId(), user.getSecurityVersion() != null ? user.getSecurityVersion() : 0L,
+        user.getUsername(), user.getEmail(), System.currentTimeMillis());
+  }
+}
@@ -0,0 +1,14 @@
+package com._com.JourneeMondiale.security.services;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries user invalidations to every backend replica, including the one that published them.
+ * The implementation is chosen with {@code JourneeMondiale.app.userInvalidationBus}.
+ */
+public interface UserInvalidationBus {
+
+  void publish(UserInvalidation invalidation);
+
+  void subscribe(Consumer<UserInvalidation> listener);
+}
@@ -0,0 +1,15 @@
+package com._com.JourneeMondiale.service;
+
+import com._com.JourneeMondiale.model.Donation;
+
+/**
+ * Published by {@link DonationRollupService} for every donation written, inside the
+ * transaction of the write. Listeners should use {@code @TransactionalEventListener} so
+ * they only count committed donations.
+ *
+ * @param donation the donation as written; listeners that keep it must copy it
+ * @param before figures of the donation before the write, {@code null} for a new donation
+ * @param after figures of the donation after the write
+ */
+public record DonationChangedEvent(Donation donation, DonationRollupService.Contribution before, DonationRollupService.Contribution after) {
+}
@@ -0,0 +1,228 @@
+package com._com.JourneeMondiale.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.repository.DonationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Top succeeded donations by amount, overall and per calendar month, served from memory.
+ *
+ * Each board is a min-heap bounded to {@code size} entries: a committed donation only has
+ * to beat the smallest one to get in. A donation that drops out of a full board, or whose
+ * amount falls below the smallest, may leave room for one the board never saw, so that
+ * board alone is reloaded with one query on the (status, amount) index. Monthly boards are
+ * loaded the first time they are asked for.
+ *
+ * Every loaded board is checked against the database once the application is ready and
+ * then every {@code checkMs}; a board that differs is logged and replaced, which also picks
+ * up donations recorded by other replicas.
+ */
+@Service
+public class DonationLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(DonationLeaderboard.class);
+
+    private static final String SUCCEEDED = "succeeded";
+
+    // Same order as the repository queries: amount descending, then the earlier donation first
+    private static final Comparator<Donation> BEST_FIRST = Comparator.comparing(Donation::getAmount).reversed()
+        .thenComparing(Donation::getId);
+
+    private final DonationRepository donationRepository;
+
+    private final int size;
+
+    private final Board overall;
+
+    private final Map<YearMonth, Board> months = new ConcurrentHashMap<>();
+
+    private final Counter repairs;
+
+    public DonationLeaderboard(DonationRepository donationRepository, MeterRegistry meterRegistry,
+                               @Value("${JourneeMondiale.app.leaderboard.size:100}") int size) {
+        this.donationRepository = donationRepository;
+        this.size = size;
+        this.overall = new Board(size);
+        this.repairs = Counter.builder("donation.leaderboard.repairs").register(meterRegistry);
+    }
+
+    /**
+     * Largest succeeded donations, overall or of the given month; at most {@code size}.
+     */
+    public List<Donation> top(int limit, YearMonth month) {
+        return (month == null ? overall : monthBoard(month)).top(limit);
+    }
+
+    @PostConstruct
+    public void load() {
+        overall.reset(queryTop(null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.leaderboard.checkMs:600000}",
+               initialDelayString = "${JourneeMondiale.app.leaderboard.checkMs:600000}")
+    public void verify() {
+        verify(null, overall);
+        months.forEach(this::verify);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDonationChanged(DonationChangedEvent change) {
+        boolean succeeded = SUCCEEDED.equals(change.after().status());
+        boolean wasSucceeded = change.before() != null && SUCCEEDED.equals(change.before().status());
+        if (!succeeded && !wasSucceeded) {
+            return;
+        }
+        Donation donation = change.donation().copy();
+        update(null, overall, donation, succeeded);
+        if (donation.getCreatedAt() != null) {
+            YearMonth month = YearMonth.from(donation.getCreatedAt());
+            Board board = months.get(month);
+            if (board != null) {
+                update(month, board, donation, succeeded);
+            }
+        }
+    }
+
+    private void update(YearMonth month, Board board, Donation donation, boolean succeeded) {
+        if (!board.update(donation, succeeded)) {
+            board.reset(queryTop(month));
+        }
+    }
+
+    private Board monthBoard(YearMonth month) {
+        Board board = months.get(month);
+        if (board == null) {
+            Board loaded = new Board(size);
+            loaded.reset(queryTop(month));
+            board = months.putIfAbsent(month, loaded);
+            if (board == null) {
+                board = loaded;
+            }
+        }
+        return board;
+    }
+
+    private void verify(YearMonth month, Board board) {
+        List<Donation> expected = queryTop(month);
+        List<Donation> actual = board.top(size);
+        if (!sameRanking(expected, actual)) {
+            logger.warn("Donation leaderboard {} differed from the database, reloaded", month == null ? "overall" : month);
+            repairs.increment();
+            board.reset(expected);
+        }
+    }
+
+    private List<Donation> queryTop(YearMonth month) {
+        PageRequest page = PageRequest.of(0, size);
+        if (month == null) {
+            return donationRepository.findTopDonationsByAmount(page);
+        }
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        return donationRepository.findTopDonationsByAmountBetween(from, from.plusMonths(1), page);
+    }
+
+    private static boolean sameRanking(List<Donation> expected, List<Donation> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).getId().equals(actual.get(i).getId())
+                || expected.get(i).getAmount().compareTo(actual.get(i).getAmount()) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Board {
+
+        private final int size;
+
+        // Smallest first, so the one to evict is at the head
+        private final PriorityQueue<Donation> heap = new PriorityQueue<>(BEST_FIRST.reversed());
+
+        private final Map<Long, Donation> byId = new HashMap<>();
+
+        // Best first, rebuilt on every change so readers never lock
+        private volatile List<Donation> ranking = List.of();
+
+        Board(int size) {
+            this.size = size;
+        }
+
+        List<Donation> top(int limit) {
+            List<Donation> current = ranking;
+            return current.subList(0, Math.max(0, Math.min(limit, current.size())));
+        }
+
+        synchronized void reset(List<Donation> donations) {
+            heap.clear();
+            byId.clear();
+            donations.forEach(donation -> offer(donation.copy()));
+            publish();
+        }
+
+        /**
+         * Applies a committed change. Returns false when the board can no longer know its
+         * top without the database: it was full and the donation left it or fell below its
+         * smallest entry.
+         */
+        synchronized boolean update(Donation donation, boolean succeeded) {
+            Donation current = byId.remove(donation.getId());
+            if (current != null) {
+                boolean full = heap.size() == size;
+                Donation smallest = heap.peek();
+                heap.remove(current);
+                if (full && (!succeeded || BEST_FIRST.compare(donation, smallest) > 0)) {
+                    return false;
+                }
+            }
+            if (succeeded) {
+                offer(donation);
+            }
+            publish();
+            return true;
+        }
+
+        private void offer(Donation donation) {
+            if (heap.size() == size) {
+                if (BEST_FIRST.compare(donation, heap.peek()) >= 0) {
+                    return;
+                }
+                byId.remove(heap.poll().getId());
+            }
+            heap.add(donation);
+            byId.put(donation.getId(), donation);
+        }
+
+        private void publish() {
+            List<Donation> sorted = new ArrayList<>(heap);
+            sorted.sort(BEST_FIRST);
+            ranking = List.copyOf(sorted);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com._com.JourneeMondiale.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com._com.JourneeMondiale.payload.response.LiveDonationTotal;
+import com._com.JourneeMondiale.repository.DonationRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Donation count and amount per status, kept in memory so the "total raised" widget and
+ * the dashboard can poll without reaching the database.
+ *
+ * The counters are {@link LongAdder}s: committed donations add to them without locking,
+ * however many arrive at once. Readers get an immutable snapshot taken every
+ * {@code snapshotMs}, so a poll costs a field read. The counters are seeded from the
+ * donations at startup and corrected against them every {@code resyncMs}, which also picks
+ * up donations recorded by other replicas.
+ */
+@Service
+public class DonationLiveTotals {
+
+    private static final String SUCCEEDED = "succeeded";
+
+    private final DonationRepository donationRepository;
+
+    // status -> counters; amounts are in cents
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private volatile LiveDonationTotal snapshot = new LiveDonationTotal(0, BigDecimal.ZERO.setScale(2), Instant.now());
+
+    public DonationLiveTotals(DonationRepository donationRepository) {
+        this.donationRepository = donationRepository;
+    }
+
+    public LiveDonationTotal current() {
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDonationChanged(DonationChangedEvent change) {
+        if (change.before() != null) {
+            countersOf(change.before().status()).add(-1, -cents(change.before().amount()));
+        }
+        countersOf(change.after().status()).add(1, cents(change.after().amount()));
+    }
+
+    @Scheduled(fixedRateString = "${JourneeMondiale.app.donationLiveTotals.snapshotMs:1000}")
+    public void snapshot() {
+        Counters succeeded = counters.get(SUCCEEDED);
+        long count = succeeded != null ? succeeded.count.sum() : 0;
+        long cents = succeeded != null ? succeeded.cents.sum() : 0;
+        snapshot = new LiveDonationTotal(count, BigDecimal.valueOf(cents, 2), Instant.now());
+    }
+
+    /**
+     * Brings the counters to the totals of the donations table. A donation committed while
+     * this runs may be counted twice or missed until the next resync.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.donationLiveTotals.resyncMs:300000}",
+               initialDelayString = "${JourneeMondiale.app.donationLiveTotals.resyncMs:300000}")
+    public void resync() {
+        Map<String, DonationRepository.StatusTotals> totals = new HashMap<>();
+        for (DonationRepository.StatusTotals row : donationRepository.getTotalsByStatus()) {
+            totals.put(row.getStatus(), row);
+        }
+        for (String status : counters.keySet()) {
+            totals.putIfAbsent(status, null);
+        }
+        totals.forEach((status, row) -> {
+            Counters target = countersOf(status);
+            long count = row != null ? row.getCount() : 0;
+            long cents = row != null && row.getAmount() != null ? cents(row.getAmount()) : 0;
+            target.add(count - target.count.sum(), cents - target.cents.sum());
+        });
+        snapshot();
+    }
+
+    private Counters countersOf(String status) {
+        return counters.computeIfAbsent(status, key -> new Counters());
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Counters {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder cents = new LongAdder();
+
+        void add(long countDelta, long centsDelta) {
+            count.add(countDelta);
+            cents.add(centsDelta);
+        }
+    }
+}
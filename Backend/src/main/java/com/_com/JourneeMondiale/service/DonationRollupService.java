@@ -0,0 +1,152 @@
+package com._com.JourneeMondiale.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.repository.DonationRepository;
+import com._com.JourneeMondiale.repository.DonationRollupRepository;
+
+/**
+ * Maintains the {@code donation_daily_rollup} table and answers range statistics from it.
+ *
+ * Every donation write adds its count and amount to the row of its day, currency and status
+ * in the same transaction, so the rollup never drifts from the donations. Callers changing a
+ * donation must load it locked (e.g. {@code findForUpdateById}) before taking the
+ * {@link Contribution} to replace: two concurrent changes would otherwise both remove the
+ * same old figures. Whole days of a
+ * range are summed from the rollup; only the partial days at either end read donations.
+ * Each write is also published as a {@link DonationChangedEvent}.
+ */
+@Service
+public class DonationRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DonationRollupService.class);
+
+    // created_at is stored with microseconds: a range ending here covers the rest of the day
+    private static final LocalTime LAST_MICROSECOND = LocalTime.MAX.withNano(999_999_000);
+
+    private final DonationRollupRepository rollupRepository;
+
+    private final DonationRepository donationRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DonationRollupService(DonationRollupRepository rollupRepository, DonationRepository donationRepository,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.rollupRepository = rollupRepository;
+        this.donationRepository = donationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * What a donation adds to the rollup. Take it before changing a donation to remove the
+     * old figures afterwards.
+     */
+    public record Contribution(LocalDate day, String currency, String status, BigDecimal amount) {
+
+        public static Contribution of(Donation donation) {
+            LocalDateTime createdAt = donation.getCreatedAt() != null ? donation.getCreatedAt() : LocalDateTime.now();
+            return new Contribution(createdAt.toLocalDate(), donation.getCurrency(), donation.getStatus(), donation.getAmount());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Donation donation) {
+        Contribution contribution = Contribution.of(donation);
+        apply(contribution, 1);
+        eventPublisher.publishEvent(new DonationChangedEvent(donation, null, contribution));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(Contribution before, Donation after) {
+        Contribution current = Contribution.of(after);
+        if (!sameFigures(before, current)) {
+            apply(before, -1);
+            apply(current, 1);
+        }
+        eventPublisher.publishEvent(new DonationChangedEvent(after, before, current));
+    }
+
+    /**
+     * Recomputes the whole rollup from the donations, for backfill or after a manual fix in
+     * the database. Donations written while it runs may be counted twice or not at all, so
+     * run it when payments are quiet.
+     *
+     * @return the number of rollup rows written
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.insertFromDonations();
+        logger.info("Donation daily rollup rebuilt: {} rows", rows);
+        return rows;
+    }
+
+    // A database that had donations before the rollup existed starts with an empty table
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && donationRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationRepository.StatusTotals> totals() {
+        return rollupRepository.getTotalsByStatus();
+    }
+
+    /**
+     * Totals per status of the donations created between start and end, both included. A
+     * status may appear up to three times: the whole days, then the partial first and last days.
+     */
+    @Transactional(readOnly = true)
+    public List<DonationRepository.StatusTotals> totalsBetween(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            return List.of();
+        }
+        LocalDate firstWholeDay = start.toLocalTime().equals(LocalTime.MIDNIGHT) ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        LocalDate lastWholeDay = end.toLocalTime().isBefore(LAST_MICROSECOND) ? end.toLocalDate().minusDays(1) : end.toLocalDate();
+        if (firstWholeDay.isAfter(lastWholeDay)) {
+            // Less than two days, none of them whole
+            return donationRepository.getTotalsByStatusBetween(start, end);
+        }
+
+        List<DonationRepository.StatusTotals> totals = new ArrayList<>(
+            rollupRepository.getTotalsByStatusBetween(firstWholeDay, lastWholeDay));
+        LocalDateTime wholeDaysStart = firstWholeDay.atStartOfDay();
+        if (start.isBefore(wholeDaysStart)) {
+            totals.addAll(donationRepository.getTotalsByStatusFromUntil(start, wholeDaysStart));
+        }
+        LocalDateTime wholeDaysEnd = lastWholeDay.plusDays(1).atStartOfDay();
+        if (!end.isBefore(wholeDaysEnd)) {
+            totals.addAll(donationRepository.getTotalsByStatusBetween(wholeDaysEnd, end));
+        }
+        return totals;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        rollupRepository.addToDay(contribution.day(), contribution.currency(), contribution.status(),
+            sign, sign < 0 ? contribution.amount().negate() : contribution.amount());
+    }
+
+    private static boolean sameFigures(Contribution a, Contribution b) {
+        return a.day().equals(b.day()) && Objects.equals(a.currency(), b.currency())
+            && Objects.equals(a.status(), b.status()) && a.amount().compareTo(b.amount()) == 0;
+    }
+}
@@ -2,6 +2,7 @@ package com._com.JourneeMondiale.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,8 +14,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.payload.response.DonationStatistics;
+import com._com.JourneeMondiale.payload.response.RecentSupporter;
 import com._com.JourneeMondiale.repository.DonationRepository;
 
 @Service
@@ -23,6 +27,15 @@ public class DonationService {
     @Autowired
     private DonationRepository donationRepository;
 
+    @Autowired
+    private DonationRollupService donationRollupService;
+
+    @Autowired
+    private RecentDonations recentDonations;
+
+    @Autowired
+    private DonationLeaderboard donationLeaderboard;
+
     // Get all donations with pagination and sorting
     public Page<Donation> getAllDonations(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
@@ -49,17 +62,21 @@ public class DonationService {
     }
 
     // Update donation
+    @Transactional
     public Donation updateDonation(Long id, Donation donationDetails) {
-        Optional<Donation> optionalDonation = donationRepository.findById(id);
+        Optional<Donation> optionalDonation = donationRepository.findForUpdateById(id);
         if (optionalDonation.isPresent()) {
             Donation donation = optionalDonation.get();
+            DonationRollupService.Contribution before = DonationRollupService.Contribution.of(donation);
             donation.setAmount(donationDetails.getAmount());
             donation.setCurrency(donationDetails.getCurrency());
             donation.setDonorName(donationDetails.getDonorName());
             donation.setDonorEmail(donationDetails.getDonorEmail());
             donation.setDescription(donationDetails.getDescription());
             donation.setStatus(donationDetails.getStatus());
-            return donationRepository.save(donation);
+            Donation saved = donationRepository.save(donation);
+            donationRollupService.replace(before, saved);
+            return saved;
         }
         return null;
     }
@@ -80,100 +97,45 @@ public class DonationService {
         return donationRepository.findRecentDonations(thirtyDaysAgo);
     }
 
-    // Get recent donations with limit
+    // Get recent succeeded donations with limit, from memory (at most the ring's capacity)
     public List<Donation> getRecentDonations(int limit) {
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Donation> donations = donationRepository.findRecentDonations(thirtyDaysAgo);
-        return donations.stream().limit(limit).toList();
+        return recentDonations.latest(limit, thirtyDaysAgo);
+    }
+
+    // Get the anonymized public feed of recent supporters, from memory
+    public List<RecentSupporter> getRecentSupporters(int limit) {
+        return recentDonations.supporters(limit);
     }
 
-    // Get top donations by amount
+    // Get top donations by amount, overall or of one month, from memory (at most the leaderboard size)
     public List<Donation> getTopDonations(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return donationRepository.findTopDonationsByAmount(pageable);
+        return getTopDonations(limit, null);
+    }
+
+    public List<Donation> getTopDonations(int limit, YearMonth month) {
+        return donationLeaderboard.top(limit, month);
     }
 
     // Get donation statistics
-    public Map<String, Object> getDonationStatistics() {
+    public DonationStatistics getDonationStatistics() {
         return getDonationStatistics(null, null);
     }
 
-    // Get donation statistics with date filtering
-    public Map<String, Object> getDonationStatistics(LocalDateTime startDate, LocalDateTime endDate) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        if (startDate != null || endDate != null) {
-            // Get filtered statistics by date range
-            List<Donation> filteredDonations = donationRepository.findByCreatedAtBetween(
-                startDate != null ? startDate : LocalDateTime.of(1970, 1, 1, 0, 0),
-                endDate != null ? endDate : LocalDateTime.now()
-            );
-            
-            // Calculate statistics from filtered donations
-            long totalCount = filteredDonations.stream()
-                .filter(d -> "succeeded".equals(d.getStatus()))
-                .count();
-            
-            BigDecimal totalAmount = filteredDonations.stream()
-                .filter(d -> "succeeded".equals(d.getStatus()))
-                .map(Donation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            double averageAmount = totalCount > 0 ? totalAmount.doubleValue() / totalCount : 0.0;
-            
-            stats.put("totalCount", totalCount);
-            stats.put("totalAmount", totalAmount);
-            stats.put("averageAmount", averageAmount);
-            
-            // Get status counts from filtered donations
-            stats.put("succeededCount", filteredDonations.stream()
-                .filter(d -> "succeeded".equals(d.getStatus())).count());
-            stats.put("pendingCount", filteredDonations.stream()
-                .filter(d -> "pending".equals(d.getStatus())).count());
-            stats.put("failedCount", filteredDonations.stream()
-                .filter(d -> "failed".equals(d.getStatus())).count());
-            
-            // Get amounts by status from filtered donations
-            stats.put("succeededAmount", filteredDonations.stream()
-                .filter(d -> "succeeded".equals(d.getStatus()))
-                .map(Donation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-            stats.put("pendingAmount", filteredDonations.stream()
-                .filter(d -> "pending".equals(d.getStatus()))
-                .map(Donation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-            stats.put("failedAmount", filteredDonations.stream()
-                .filter(d -> "failed".equals(d.getStatus()))
-                .map(Donation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        } else {
-            // Get basic statistics (original logic)
-            Object[] result = (Object[]) donationRepository.getDonationStatistics();
-            if (result != null && result.length >= 3) {
-                Long count = (Long) result[0];
-                BigDecimal sum = (BigDecimal) result[1];
-                Double avg = ((Number) result[2]).doubleValue();
-                stats.put("totalCount", count);
-                stats.put("totalAmount", sum);
-                stats.put("averageAmount", avg);
-            } else {
-                stats.put("totalCount", 0L);
-                stats.put("totalAmount", BigDecimal.ZERO);
-                stats.put("averageAmount", BigDecimal.ZERO);
-            }
-            
-            // Get total amount by status
-            stats.put("succeededAmount", donationRepository.getTotalAmountByStatus("succeeded"));
-            stats.put("pendingAmount", donationRepository.getTotalAmountByStatus("pending"));
-            stats.put("failedAmount", donationRepository.getTotalAmountByStatus("failed"));
-            
-            // Get count by status
-            stats.put("succeededCount", donationRepository.findByStatus("succeeded").size());
-            stats.put("pendingCount", donationRepository.findByStatus("pending").size());
-            stats.put("failedCount", donationRepository.findByStatus("failed").size());
+    // Get donation statistics with date filtering: whole days come from the daily rollup
+    @Transactional(readOnly = true)
+    public DonationStatistics getDonationStatistics(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null && endDate == null) {
+            return DonationStatistics.from(donationRollupService.totals());
         }
-        
-        return stats;
+        return DonationStatistics.from(donationRollupService.totalsBetween(
+            startDate != null ? startDate : LocalDateTime.of(1970, 1, 1, 0, 0),
+            endDate != null ? endDate : LocalDateTime.now()));
+    }
+
+    // Recompute the daily rollup from the donations (backfill)
+    public int rebuildDailyRollup() {
+        return donationRollupService.rebuild();
     }
 
     // Search donations with filters
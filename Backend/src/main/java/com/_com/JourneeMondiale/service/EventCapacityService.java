@@ -0,0 +1,137 @@
+package com._com.JourneeMondiale.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.repository.EventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Seat reservations for events. The conditional UPDATE on {@code events.current_participants}
+ * is the source of truth: the database only increments the counter while it is below
+ * {@code max_participants}, so concurrent registrations can never overbook, whichever
+ * replica they hit.
+ *
+ * In front of it, each node remembers the events for which that UPDATE last found no seat,
+ * so further attempts are turned away without a query or a row lock. Only the database sets
+ * the flag; any release on this node clears it, and the periodic refresh clears it for events
+ * that have seats again, e.g. released on another replica. A node can therefore answer
+ * {@code event.full} for at most one refresh interval after a seat came back elsewhere, and
+ * never for an event the database did not find full.
+ */
+@Service
+public class EventCapacityService {
+
+    private final EventRepository eventRepository;
+
+    // Events whose last reservation attempt on this node found no seat in the database
+    private final Set<Long> knownFull = ConcurrentHashMap.newKeySet();
+
+    private final Counter memoryRejections;
+
+    private final Counter databaseRejections;
+
+    public EventCapacityService(EventRepository eventRepository, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.memoryRejections = Counter.builder("event.capacity.rejected").tag("source", "memory").register(meterRegistry);
+        this.databaseRejections = Counter.builder("event.capacity.rejected").tag("source", "database").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.capacityRefreshMs:5000}",
+               initialDelayString = "${JourneeMondiale.app.capacityRefreshMs:5000}")
+    public void refresh() {
+        if (knownFull.isEmpty()) {
+            return;
+        }
+        List<Object[]> capacities = eventRepository.findActiveCapacities();
+        for (Object[] capacity : capacities) {
+            if ((Integer) capacity[1] > (Integer) capacity[2]) {
+                knownFull.remove((Long) capacity[0]);
+            }
+        }
+    }
+
+    /**
+     * Takes one seat. Must run inside the transaction that records the registration,
+     * so the seat is given back if that transaction rolls back.
+     *
+     * @throws BusinessRuleException if the event is full
+     */
+    public void reserve(Long eventId) {
+        reserve(eventId, 1);
+    }
+
+    /**
+     * Takes {@code seats} seats at once, or none. Same transaction rules as {@link #reserve(Long)}.
+     *
+     * @throws BusinessRuleException if fewer seats are left
+     */
+    public void reserve(Long eventId, int seats) {
+        rejectIfKnownFull(eventId);
+        if (eventRepository.tryReserveSeats(eventId, seats) == 0) {
+            databaseRejections.increment();
+            if (seats > 1) {
+                // Some seats may be left for smaller groups
+                throw notEnoughSeats();
+            }
+            knownFull.add(eventId);
+            throw full();
+        }
+    }
+
+    /**
+     * Cheap pre-check before any other work: fails if the database last found the event full on this node.
+     */
+    public void rejectIfKnownFull(Long eventId) {
+        if (knownFull.contains(eventId)) {
+            memoryRejections.increment();
+            throw full();
+        }
+    }
+
+    /**
+     * Gives one seat back, for a confirmed registration being cancelled.
+     */
+    public void release(Long eventId) {
+        if (eventRepository.releaseSeat(eventId) > 0) {
+            afterCommit(() -> knownFull.remove(eventId));
+        }
+    }
+
+    /**
+     * Drops the full flag, e.g. after max participants changed; the next reservation asks the database.
+     */
+    public void forget(Long eventId) {
+        afterCommit(() -> knownFull.remove(eventId));
+    }
+
+    private static BusinessRuleException full() {
+        return new BusinessRuleException("event.full", "L'événement est complet");
+    }
+
+    private static BusinessRuleException notEnoughSeats() {
+        return new BusinessRuleException("event.not_enough_seats", "Il ne reste pas assez de places pour tout le groupe");
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
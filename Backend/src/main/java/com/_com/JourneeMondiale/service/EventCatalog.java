@@ -0,0 +1,166 @@
+package com._com.JourneeMondiale.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * In-memory snapshot of the public event catalog, held as ready-to-send JSON bytes
+ * with a strong ETag per document. Anonymous page views are answered from here
+ * (or with a 304) without Hibernate or Jackson.
+ *
+ * Event edits rebuild the snapshot right after commit. Registration changes only
+ * mark it dirty and are folded into the next scheduled rebuild, so a registration
+ * rush costs a few rebuilds per second at most. The snapshot is also rebuilt when
+ * an event crosses its deadline or date ({@link EventLifecycleChangedEvent}), and
+ * after a maximum age so changes made on other replicas show up.
+ */
+@Service
+public class EventCatalog {
+
+    private final EventRepository eventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final long maxAgeMs;
+
+    private volatile Snapshot snapshot;
+
+    private volatile boolean dirty = true;
+
+    private final Timer rebuildTimer;
+
+    private final Counter notModified;
+
+    public EventCatalog(EventRepository eventRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                        @Value("${JourneeMondiale.app.catalogMaxAgeMs:5000}") long maxAgeMs) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.maxAgeMs = maxAgeMs;
+        this.rebuildTimer = Timer.builder("event.catalog.rebuild").register(meterRegistry);
+        this.notModified = Counter.builder("event.catalog.not.modified").register(meterRegistry);
+    }
+
+    /**
+     * A pre-serialized JSON document and its quoted strong ETag.
+     */
+    public record Document(byte[] json, String etag) {
+    }
+
+    public Document upcoming() {
+        return current().upcoming();
+    }
+
+    public Document upcomingOpen() {
+        return current().upcomingOpen();
+    }
+
+    /**
+     * Upcoming events come from the snapshot; past or inactive ones are looked up and serialized on demand.
+     */
+    public Optional<Document> byId(Long id) {
+        Document document = current().byId().get(id);
+        if (document != null) {
+            return Optional.of(document);
+        }
+        return eventRepository.findListingById(id).map(this::document);
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        dirty = true;
+        if (change.kind() != EventChangedEvent.Kind.REGISTRATIONS) {
+            // Admins expect to see their edit on the next page view
+            rebuild();
+        }
+    }
+
+    // Picked up by the next scheduled refresh, so a burst of transitions costs one rebuild
+    @EventListener
+    public void onLifecycleChanged(EventLifecycleChangedEvent change) {
+        dirty = true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.catalogRefreshMs:250}")
+    public void refreshIfStale() {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (dirty || current == null || now - current.builtAtMillis() >= maxAgeMs) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        rebuildTimer.record(() -> {
+            // Cleared first: a change committed while we query marks it dirty again
+            dirty = false;
+            List<EventListingDTO> upcoming = eventRepository.findListingsInStates(EventLifecycleService.UPCOMING_STATES);
+            List<EventListingDTO> upcomingOpen = eventRepository.findListingsInStates(List.of(Event.LifecycleState.OPEN));
+            Map<Long, Document> byId = upcoming.stream()
+                .collect(Collectors.toUnmodifiableMap(EventListingDTO::getId, this::document));
+            snapshot = new Snapshot(document(upcoming), document(upcomingOpen), byId, System.currentTimeMillis());
+        });
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private Document document(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Document(json, etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event catalog", e);
+        }
+    }
+
+    // Strong validator: derived from the exact bytes, so unchanged content keeps its ETag across rebuilds and replicas
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Snapshot(Document upcoming, Document upcomingOpen, Map<Long, Document> byId,
+                            long builtAtMillis) {
+    }
+}
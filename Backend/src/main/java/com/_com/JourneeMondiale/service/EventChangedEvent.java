@@ -0,0 +1,16 @@
+package com._com.JourneeMondiale.service;
+
+/**
+ * Published by {@link EventService} when an event or its registrations change.
+ * Listeners that cache event data should use {@code @TransactionalEventListener}
+ * so they only react once the change is committed.
+ *
+ * @param eventId id of the changed event
+ * @param kind what changed
+ */
+public record EventChangedEvent(Long eventId, Kind kind) {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED, REGISTRATIONS
+    }
+}
@@ -0,0 +1,15 @@
+package com._com.JourneeMondiale.service;
+
+import com._com.JourneeMondiale.model.Event;
+
+/**
+ * Published by {@link EventLifecycleService} when an event's registration deadline or date
+ * goes by. It is published after the state column is written, outside of any transaction,
+ * so plain {@code @EventListener}s can react to it.
+ *
+ * @param eventId id of the event
+ * @param from state before the transition
+ * @param to state after the transition
+ */
+public record EventLifecycleChangedEvent(Long eventId, Event.LifecycleState from, Event.LifecycleState to) {
+}
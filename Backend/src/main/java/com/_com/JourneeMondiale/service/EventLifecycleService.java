@@ -0,0 +1,196 @@
+package com._com.JourneeMondiale.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.repository.EventRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves events from OPEN to CLOSED at their registration deadline and to PAST at their
+ * date. Each active event has one timeout pending on a {@link HashedTimerWheel}; when it
+ * fires, the {@code lifecycle_state} column is updated and an
+ * {@link EventLifecycleChangedEvent} is published.
+ *
+ * A periodic reconcile reloads the schedules from the database, which fixes states missed
+ * while the application was down and picks up events changed on other replicas. Code that
+ * loads an event anyway can hand its dates over with {@link #observe} to pick such a change
+ * up sooner.
+ */
+@Service
+public class EventLifecycleService {
+
+    // States of the events listed as upcoming; only OPEN ones take registrations
+    public static final Set<Event.LifecycleState> UPCOMING_STATES = Set.of(Event.LifecycleState.OPEN, Event.LifecycleState.CLOSED);
+
+    private final EventRepository eventRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final HashedTimerWheel wheel;
+
+    // eventId -> its schedule; events that are PAST stay until the next reconcile
+    private final Map<Long, Tracked> tracked = new ConcurrentHashMap<>();
+
+    public EventLifecycleService(EventRepository eventRepository, ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 @Value("${JourneeMondiale.app.lifecycle.tickMs:100}") long tickMillis,
+                                 @Value("${JourneeMondiale.app.lifecycle.wheelSize:512}") int wheelSize) {
+        this.eventRepository = eventRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HashedTimerWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        Gauge.builder("event.lifecycle.pending", wheel, HashedTimerWheel::pendingCount).register(meterRegistry);
+    }
+
+    public static Event.LifecycleState stateAt(LocalDateTime registrationDeadline, LocalDateTime eventDate, LocalDateTime now) {
+        return stateAt(toMillis(registrationDeadline), toMillis(eventDate), toMillis(now));
+    }
+
+    /**
+     * Re-schedules a tracked event whose dates, as just loaded, differ from the tracked ones,
+     * e.g. after an edit on another replica.
+     */
+    public void observe(Long eventId, LocalDateTime registrationDeadline, LocalDateTime eventDate) {
+        Tracked current = tracked.get(eventId);
+        long deadlineMillis = toMillis(registrationDeadline);
+        long dateMillis = toMillis(eventDate);
+        if (current != null && (current.deadlineMillis() != deadlineMillis || current.dateMillis() != dateMillis)) {
+            track(eventId, deadlineMillis, dateMillis);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        wheel.start("event-lifecycle");
+        reconcile();
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        switch (change.kind()) {
+            case CREATED, UPDATED -> eventRepository.findListingById(change.eventId())
+                .filter(event -> Boolean.TRUE.equals(event.getIsActive()))
+                .ifPresent(event -> track(event.getId(), toMillis(event.getRegistrationDeadline()), toMillis(event.getEventDate())));
+            case DELETED -> forget(change.eventId());
+            case REGISTRATIONS -> { }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.lifecycle.reconcileMs:600000}",
+               initialDelayString = "${JourneeMondiale.app.lifecycle.reconcileMs:600000}")
+    public synchronized void reconcile() {
+        long now = System.currentTimeMillis();
+        Map<Event.LifecycleState, List<Long>> corrections = new EnumMap<>(Event.LifecycleState.class);
+        Set<Long> seen = new HashSet<>();
+        for (Object[] row : eventRepository.findLifecycleSchedules(Event.LifecycleState.PAST)) {
+            Long eventId = (Long) row[0];
+            long deadlineMillis = toMillis((LocalDateTime) row[1]);
+            long dateMillis = toMillis((LocalDateTime) row[2]);
+            Event.LifecycleState state = stateAt(deadlineMillis, dateMillis, now);
+            if (state != row[3]) {
+                corrections.computeIfAbsent(state, s -> new ArrayList<>()).add(eventId);
+            }
+            seen.add(eventId);
+            Tracked current = tracked.get(eventId);
+            if (current == null || current.deadlineMillis() != deadlineMillis || current.dateMillis() != dateMillis) {
+                track(eventId, deadlineMillis, dateMillis);
+            }
+        }
+        // Deleted, or PAST and written back since
+        for (Long eventId : new ArrayList<>(tracked.keySet())) {
+            if (!seen.contains(eventId)) {
+                forget(eventId);
+            }
+        }
+        // One statement per state, for the backlog of a restart or of a first run on an existing database
+        corrections.forEach((state, eventIds) ->
+            transactionTemplate.executeWithoutResult(status -> eventRepository.updateLifecycleStates(eventIds, state)));
+    }
+
+    private synchronized void track(Long eventId, long deadlineMillis, long dateMillis) {
+        Tracked previous = tracked.get(eventId);
+        Event.LifecycleState announced = previous != null
+            ? previous.announced() : stateAt(deadlineMillis, dateMillis, System.currentTimeMillis());
+        if (previous != null && previous.timeout() != null) {
+            previous.timeout().cancel();
+        }
+        tracked.put(eventId, new Tracked(deadlineMillis, dateMillis, announced, null));
+        advance(eventId);
+    }
+
+    private synchronized void forget(Long eventId) {
+        Tracked previous = tracked.remove(eventId);
+        if (previous != null && previous.timeout() != null) {
+            previous.timeout().cancel();
+        }
+    }
+
+    // Runs on the wheel thread when a timeout fires, and after every (re)track
+    private synchronized void advance(Long eventId) {
+        Tracked current = tracked.get(eventId);
+        if (current == null) {
+            return;
+        }
+        if (current.timeout() != null) {
+            // Only a stale timeout racing a re-track gets here with one still pending
+            current.timeout().cancel();
+        }
+        Event.LifecycleState state = stateAt(current.deadlineMillis(), current.dateMillis(), System.currentTimeMillis());
+        HashedTimerWheel.Timeout next = switch (state) {
+            case OPEN -> wheel.schedule(current.deadlineMillis(), () -> advance(eventId));
+            case CLOSED -> wheel.schedule(current.dateMillis(), () -> advance(eventId));
+            case PAST -> null;
+        };
+        tracked.put(eventId, new Tracked(current.deadlineMillis(), current.dateMillis(), state, next));
+        if (state != current.announced()) {
+            // Every replica runs its own timers; the write is idempotent and the event is local
+            transactionTemplate.executeWithoutResult(status -> eventRepository.updateLifecycleStates(List.of(eventId), state));
+            eventPublisher.publishEvent(new EventLifecycleChangedEvent(eventId, current.announced(), state));
+        }
+    }
+
+    // PAST wins over CLOSED when an event is dated before its own deadline
+    private static Event.LifecycleState stateAt(long deadlineMillis, long dateMillis, long nowMillis) {
+        if (nowMillis >= dateMillis) {
+            return Event.LifecycleState.PAST;
+        }
+        return nowMillis >= deadlineMillis ? Event.LifecycleState.CLOSED : Event.LifecycleState.OPEN;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // announced: the state last written and published by this node
+    private record Tracked(long deadlineMillis, long dateMillis, Event.LifecycleState announced,
+                           HashedTimerWheel.Timeout timeout) {
+    }
+}
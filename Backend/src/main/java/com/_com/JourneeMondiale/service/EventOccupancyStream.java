@@ -0,0 +1,431 @@
+package com._com.JourneeMondiale.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.payload.response.OccupancyUpdate;
+import com._com.JourneeMondiale.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes the seat counts and open/closed changes of events to Server-Sent Events subscribers.
+ *
+ * Changes only mark an event dirty. Every {@code flushMs} the dirty events are read in one
+ * query, each update is serialized once, and the same frame is written to every subscriber
+ * of the event, so an event sends at most one update per flush however many registrations
+ * it gets.
+ *
+ * Open streams are held by the servlet container's async support, not by threads. Each
+ * subscriber has its own outbox holding at most the latest frame per event, drained by a
+ * small pool of writer threads, one subscriber at a time. A slow client only delays itself:
+ * newer frames replace the ones it has not taken yet, and the other subscribers are written
+ * by the remaining threads.
+ *
+ * A client whose write has been blocked for {@code stallTimeoutMs} is dropped and its
+ * response completed. The thread stuck in its write is written off: a spare thread takes its
+ * place in the pool, up to {@code spareWriterThreads}, and leaves again once the write
+ * returns. That happens at the latest when the container's write timeout
+ * ({@code server.tomcat.connection-timeout}) expires.
+ *
+ * Responses carry {@code X-Accel-Buffering: no} so that nginx passes frames on as they come.
+ */
+@Service
+public class EventOccupancyStream {
+
+    public static final int MAX_EVENTS_PER_SUBSCRIPTION = 50;
+
+    private static final Set<DataWithMediaType> PING = SseEmitter.event().comment("ping").build();
+
+    private static final long NOT_WRITING = Long.MIN_VALUE;
+
+    // Set by the reaper on a stalled write whose thread has been replaced
+    private static final long WRITTEN_OFF = Long.MAX_VALUE;
+
+    private final EventRepository eventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final long timeoutMs;
+
+    private final int maxSubscribers;
+
+    // eventId -> subscribers of that event; an entry exists only while it has subscribers
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> allSubscribers = ConcurrentHashMap.newKeySet();
+
+    // Admission count, taken before a subscriber is added
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Changed since the last flush
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final long stallTimeoutNanos;
+
+    // Runs the drains of subscribers' outboxes; at most one queued task per subscriber
+    private final ThreadPoolExecutor writer;
+
+    private final int writerThreads;
+
+    private final int spareWriterThreads;
+
+    // Writer threads stuck in a stalled write, each replaced by a spare; guarded by writer
+    private int writtenOffThreads;
+
+    private final Counter stalledClosed;
+
+    public EventOccupancyStream(EventRepository eventRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${JourneeMondiale.app.occupancyStream.timeoutMs:1800000}") long timeoutMs,
+                                @Value("${JourneeMondiale.app.occupancyStream.maxSubscribers:50000}") int maxSubscribers,
+                                @Value("${JourneeMondiale.app.occupancyStream.writerThreads:4}") int writerThreads,
+                                @Value("${JourneeMondiale.app.occupancyStream.stallTimeoutMs:10000}") long stallTimeoutMs,
+                                @Value("${JourneeMondiale.app.occupancyStream.spareWriterThreads:32}") int spareWriterThreads) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.stallTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(stallTimeoutMs);
+        this.writerThreads = writerThreads;
+        this.spareWriterThreads = spareWriterThreads;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writer = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "occupancy-stream-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        Gauge.builder("event.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        this.stalledClosed = Counter.builder("event.stream.stalled").register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream on the given events. Their current occupancy is sent right away, then
+     * an update whenever it changes. Clients reconnect when the stream times out.
+     *
+     * @throws BusinessRuleException if the ids are missing or too many, or this node has no room for another stream
+     */
+    public SseEmitter subscribe(Collection<Long> eventIds) {
+        return subscribe(eventIds, new UnbufferedSseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Collection<Long> eventIds, SseEmitter emitter) {
+        Set<Long> ids = new LinkedHashSet<>(eventIds);
+        if (ids.isEmpty() || ids.size() > MAX_EVENTS_PER_SUBSCRIPTION) {
+            throw new BusinessRuleException("events.stream.invalid_ids",
+                "Un abonnement porte sur 1 à " + MAX_EVENTS_PER_SUBSCRIPTION + " événements");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new BusinessRuleException(HttpStatus.SERVICE_UNAVAILABLE, "events.stream.unavailable",
+                "Trop de connexions ouvertes, réessayez plus tard");
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, ids);
+        // Already completed by the container, nothing left to complete
+        emitter.onCompletion(() -> subscriber.close(false));
+        emitter.onTimeout(() -> subscriber.close(false));
+        emitter.onError(error -> subscriber.close(false));
+        allSubscribers.add(subscriber);
+        for (Long id : ids) {
+            subscribers.compute(id, (key, set) -> {
+                Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+                target.add(subscriber);
+                return target;
+            });
+        }
+        // Buffered by the emitter until the response is ready
+        frames(ids).forEach(subscriber::offer);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        markDirty(change.eventId());
+    }
+
+    @EventListener
+    public void onLifecycleChanged(EventLifecycleChangedEvent change) {
+        markDirty(change.eventId());
+    }
+
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.occupancyStream.flushMs:250}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+        frames(ids).forEach((id, frame) -> {
+            Set<Subscriber> targets = subscribers.get(id);
+            if (targets != null) {
+                targets.forEach(subscriber -> subscriber.offer(id, frame));
+            }
+        });
+    }
+
+    // Keeps proxies from dropping idle streams, and finds the clients that went away
+    @Scheduled(fixedRateString = "${JourneeMondiale.app.occupancyStream.heartbeatMs:25000}")
+    public void heartbeat() {
+        allSubscribers.forEach(subscriber -> subscriber.offer(null, PING));
+    }
+
+    @Scheduled(fixedRateString = "${JourneeMondiale.app.occupancyStream.stallTimeoutMs:10000}")
+    public void closeStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : allSubscribers) {
+            if (subscriber.writeOffIfStalled(now)) {
+                stalledClosed.increment();
+                subscriber.close(true);
+            }
+        }
+    }
+
+    // Resizes the pool so writtenOffThreads stuck threads don't count against writerThreads
+    private boolean replaceStuckWriter() {
+        synchronized (writer) {
+            if (writtenOffThreads >= spareWriterThreads) {
+                return false;
+            }
+            writtenOffThreads++;
+            writer.setMaximumPoolSize(writerThreads + writtenOffThreads);
+            writer.setCorePoolSize(writerThreads + writtenOffThreads);
+            return true;
+        }
+    }
+
+    private void releaseSpareWriter() {
+        synchronized (writer) {
+            writtenOffThreads--;
+            writer.setCorePoolSize(writerThreads + writtenOffThreads);
+            writer.setMaximumPoolSize(writerThreads + writtenOffThreads);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        writer.shutdownNow();
+    }
+
+    private void markDirty(Long eventId) {
+        if (subscribers.containsKey(eventId)) {
+            dirty.add(eventId);
+        }
+    }
+
+    private Map<Long, Set<DataWithMediaType>> frames(Collection<Long> ids) {
+        Map<Long, Set<DataWithMediaType>> frames = new HashMap<>();
+        for (Object[] row : eventRepository.findOccupancies(ids)) {
+            Long id = (Long) row[0];
+            int max = (Integer) row[1];
+            int current = (Integer) row[2];
+            Event.LifecycleState state = (Event.LifecycleState) row[3];
+            boolean active = Boolean.TRUE.equals(row[4]);
+            int remaining = Math.max(0, max - current);
+            OccupancyUpdate update = new OccupancyUpdate(id, current, max, remaining, state,
+                active && state == Event.LifecycleState.OPEN && remaining > 0, active);
+            frames.put(id, SseEmitter.event().name("occupancy").data(json(update)).build());
+        }
+        return frames;
+    }
+
+    private String json(OccupancyUpdate update) {
+        try {
+            return objectMapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize occupancy update", e);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Set<Long> eventIds;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // The emitter is completed once, by close() or by the write that was in progress
+        private final AtomicBoolean completionOwed = new AtomicBoolean();
+
+        // Frames not written yet, the latest per event; guarded by this
+        private final Map<Long, Set<DataWithMediaType>> outbox = new LinkedHashMap<>();
+
+        private boolean pingPending;
+
+        // A drain is queued or running; guarded by this
+        private boolean draining;
+
+        // System.nanoTime() when the write in progress started, NOT_WRITING or WRITTEN_OFF
+        private final AtomicLong writingSince = new AtomicLong(NOT_WRITING);
+
+        private Subscriber(SseEmitter emitter, Set<Long> eventIds) {
+            this.emitter = emitter;
+            this.eventIds = eventIds;
+        }
+
+        // A null eventId stands for a heartbeat
+        void offer(Long eventId, Set<DataWithMediaType> frame) {
+            synchronized (this) {
+                if (closed.get()) {
+                    return;
+                }
+                if (eventId == null) {
+                    pingPending = true;
+                } else {
+                    outbox.put(eventId, frame);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                writer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                close(true);
+            }
+        }
+
+        // True once per stalled write; its thread is replaced if a spare is left
+        boolean writeOffIfStalled(long nowNanos) {
+            long since = writingSince.get();
+            if (since == NOT_WRITING || since == WRITTEN_OFF || nowNanos - since <= stallTimeoutNanos) {
+                return false;
+            }
+            if (replaceStuckWriter() && !writingSince.compareAndSet(since, WRITTEN_OFF)) {
+                // The write returned meanwhile
+                releaseSpareWriter();
+            }
+            return true;
+        }
+
+        private void drain() {
+            while (!closed.get()) {
+                List<Set<DataWithMediaType>> frames;
+                synchronized (this) {
+                    if (outbox.isEmpty() && !pingPending) {
+                        draining = false;
+                        return;
+                    }
+                    frames = new ArrayList<>(outbox.values());
+                    if (pingPending) {
+                        frames.add(PING);
+                    }
+                    outbox.clear();
+                    pingPending = false;
+                }
+                for (Set<DataWithMediaType> frame : frames) {
+                    if (closed.get() || !write(frame)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        // A failed write means the client is gone; the container completes the emitter on its own
+        private boolean write(Set<DataWithMediaType> frame) {
+            writingSince.set(System.nanoTime());
+            try {
+                // Checked after announcing the write: close() either sees it or is seen here
+                if (closed.get()) {
+                    return false;
+                }
+                emitter.send(frame);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                close(false);
+                return false;
+            } finally {
+                if (writingSince.getAndSet(NOT_WRITING) == WRITTEN_OFF) {
+                    releaseSpareWriter();
+                }
+                if (closed.get()) {
+                    completeIfOwed();
+                }
+            }
+        }
+
+        /**
+         * Stops queueing frames to this subscriber. With {@code completeEmitter}, the response is
+         * also completed, right away or, if a write is in progress, by the writer once it returns:
+         * the emitter's methods share one lock, so completing now would wait on the stuck write.
+         */
+        void close(boolean completeEmitter) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (completeEmitter) {
+                completionOwed.set(true);
+                if (writingSince.get() == NOT_WRITING) {
+                    completeIfOwed();
+                }
+            }
+            synchronized (this) {
+                outbox.clear();
+                pingPending = false;
+            }
+            for (Long id : eventIds) {
+                subscribers.computeIfPresent(id, (key, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+            allSubscribers.remove(this);
+            subscriberCount.decrementAndGet();
+        }
+
+        private void completeIfOwed() {
+            if (completionOwed.compareAndSet(true, false)) {
+                emitter.completeWithError(new IOException("Occupancy stream closed"));
+            }
+        }
+    }
+
+    static final class UnbufferedSseEmitter extends SseEmitter {
+
+        UnbufferedSseEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        @Override
+        protected void extendResponse(ServerHttpResponse outputMessage) {
+            super.extendResponse(outputMessage);
+            outputMessage.getHeaders().set("X-Accel-Buffering", "no");
+        }
+    }
+}
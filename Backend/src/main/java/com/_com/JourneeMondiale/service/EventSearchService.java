@@ -0,0 +1,111 @@
+package com._com.JourneeMondiale.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.repository.EventRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Full-text search over active events, answered from an {@link EventTextIndex}.
+ *
+ * The index is loaded at startup and kept up to date from {@link EventChangedEvent}s
+ * after commit: edited events are reindexed one by one, while registration changes
+ * only refresh the participant counts, in one batched query per tick. A periodic full
+ * rebuild picks up changes made on other replicas.
+ */
+@Service
+public class EventSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private final EventRepository eventRepository;
+
+    private final int maxResults;
+
+    private volatile EventTextIndex index = new EventTextIndex();
+
+    // Events whose counts changed since the last refresh
+    private final Set<Long> staleCounts = ConcurrentHashMap.newKeySet();
+
+    private final Timer searchTimer;
+
+    public EventSearchService(EventRepository eventRepository, MeterRegistry meterRegistry,
+                              @Value("${JourneeMondiale.app.search.maxResults:50}") int maxResults) {
+        this.eventRepository = eventRepository;
+        this.maxResults = maxResults;
+        this.searchTimer = Timer.builder("event.search").register(meterRegistry);
+        Gauge.builder("event.search.indexed", this, service -> service.index.size()).register(meterRegistry);
+    }
+
+    /**
+     * @throws BusinessRuleException if the query has no searchable term
+     */
+    public List<EventListingDTO> search(String query, int limit) {
+        if (query == null || query.length() > MAX_QUERY_LENGTH || EventTextIndex.tokenize(query).isEmpty()) {
+            throw new BusinessRuleException(HttpStatus.BAD_REQUEST, "search.invalid_query",
+                "La recherche doit contenir entre 1 et " + MAX_QUERY_LENGTH + " caractères");
+        }
+        // Extra terms would only widen the work, not the result
+        String bounded = String.join(" ", EventTextIndex.tokenize(query).stream().limit(MAX_QUERY_TERMS).toList());
+        int boundedLimit = Math.max(1, Math.min(limit, maxResults));
+        return searchTimer.record(() -> index.search(bounded, boundedLimit, LocalDateTime.now()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.kind() == EventChangedEvent.Kind.REGISTRATIONS) {
+            staleCounts.add(change.eventId());
+            return;
+        }
+        reindex(change.eventId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.search.rebuildMs:300000}",
+               initialDelayString = "${JourneeMondiale.app.search.rebuildMs:300000}")
+    public synchronized void rebuild() {
+        EventTextIndex rebuilt = new EventTextIndex();
+        for (EventListingDTO event : eventRepository.findActiveListings()) {
+            rebuilt.put(event);
+        }
+        index = rebuilt;
+    }
+
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.search.countsRefreshMs:1000}")
+    public synchronized void refreshCounts() {
+        if (staleCounts.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(staleCounts);
+        staleCounts.removeAll(ids);
+        for (EventListingDTO event : eventRepository.findListingsByIds(ids)) {
+            index.refreshListing(event);
+        }
+    }
+
+    // Synchronized with rebuild(), so a change committed during a rebuild is applied on top of it
+    private synchronized void reindex(Long eventId) {
+        eventRepository.findListingById(eventId)
+            .filter(event -> Boolean.TRUE.equals(event.getIsActive()))
+            .ifPresentOrElse(index::put, () -> index.remove(eventId));
+    }
+}
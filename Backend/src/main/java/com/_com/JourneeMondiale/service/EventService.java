@@ -1,23 +1,46 @@
 package com._com.JourneeMondiale.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 
 import com._com.JourneeMondiale.dto.EventDTO;
+import com._com.JourneeMondiale.dto.EventListingDTO;
 import com._com.JourneeMondiale.dto.EventRegistrationDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.exception.ResourceNotFoundException;
 import com._com.JourneeMondiale.model.Event;
 import com._com.JourneeMondiale.model.EventRegistration;
 import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.payload.request.EventQueryRequest;
+import com._com.JourneeMondiale.payload.request.EventRegistrationRequest;
+import com._com.JourneeMondiale.payload.response.EventPageResponse;
+import com._com.JourneeMondiale.payload.response.GroupRegistrationResponse;
+import com._com.JourneeMondiale.payload.response.GroupRegistrationResponse.ParticipantResult;
+import com._com.JourneeMondiale.repository.EventQueryRepository;
 import com._com.JourneeMondiale.repository.EventRegistrationRepository;
 import com._com.JourneeMondiale.repository.EventRepository;
 import com._com.JourneeMondiale.repository.UserRepository;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
 @Service
 public class EventService {
     
@@ -29,19 +52,29 @@ public class EventService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private EventCapacityService eventCapacity;
+
+    @Autowired
+    private EventLifecycleService eventLifecycle;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
     
     public List<Event> getAllActiveEvents() {
         return eventRepository.findAllActiveEvents();
     }
     
     public List<Event> getUpcomingOpenEvents() {
-        LocalDateTime now = LocalDateTime.now();
-        return eventRepository.findUpcomingOpenEvents(now);
+        return eventRepository.findActiveEventsInStates(List.of(Event.LifecycleState.OPEN));
     }
     
     public List<Event> getUpcomingEvents() {
-        LocalDateTime now = LocalDateTime.now();
-        return eventRepository.findUpcomingEvents(now);
+        return eventRepository.findActiveEventsInStates(EventLifecycleService.UPCOMING_STATES);
     }
     
     public Optional<Event> getEventById(Long id) {
@@ -55,19 +88,41 @@ public class EventService {
     public List<Event> getEventsByType(String eventType) {
         return eventRepository.findEventsByType(eventType);
     }
+
+    /**
+     * One page of the composite event query. The cursor is opaque to clients: the sort
+     * value and id of the last event of the page, which the next page starts after.
+     */
+    @Transactional(readOnly = true)
+    public EventPageResponse queryEvents(EventQueryRequest query) {
+        EventQueryRepository.Keyset after = query.getCursor() != null ? decodeCursor(query.getCursor()) : null;
+        // One extra row tells whether there is a next page
+        List<EventListingDTO> rows = eventRepository.queryListings(query, after, query.getSize() + 1);
+        if (rows.size() <= query.getSize()) {
+            return new EventPageResponse(rows, null);
+        }
+        List<EventListingDTO> page = rows.subList(0, query.getSize());
+        EventListingDTO last = page.get(page.size() - 1);
+        LocalDateTime sortValue = query.getSort() == EventQueryRequest.Sort.DEADLINE_ASC
+                ? last.getRegistrationDeadline() : last.getEventDate();
+        return new EventPageResponse(List.copyOf(page), encodeCursor(sortValue, last.getId()));
+    }
     
     @Transactional
     public Event createEvent(Event event) {
         event.setCreatedAt(LocalDateTime.now());
         event.setCurrentParticipants(0);
         event.setIsActive(true);
-        return eventRepository.save(event);
+        event.setLifecycleState(EventLifecycleService.stateAt(event.getRegistrationDeadline(), event.getEventDate(), LocalDateTime.now()));
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), EventChangedEvent.Kind.CREATED));
+        return saved;
     }
     
     @Transactional
     public Event updateEvent(Long id, Event eventDetails) {
         Event event = eventRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Événement non trouvé avec l'ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("event.not_found", "Événement non trouvé avec l'ID: " + id));
         
         event.setName(eventDetails.getName());
         event.setDescription(eventDetails.getDescription());
@@ -76,7 +131,11 @@ public class EventService {
         event.setRegistrationDeadline(eventDetails.getRegistrationDeadline());
         event.setMaxParticipants(eventDetails.getMaxParticipants());
         event.setEventType(eventDetails.getEventType());
+        event.setLifecycleState(EventLifecycleService.stateAt(event.getRegistrationDeadline(), event.getEventDate(), LocalDateTime.now()));
         event.setUpdatedAt(LocalDateTime.now());
+        // Max participants may have changed
+        eventCapacity.forget(id);
+        eventPublisher.publishEvent(new EventChangedEvent(id, EventChangedEvent.Kind.UPDATED));
         
         return eventRepository.save(event);
     }
@@ -84,99 +143,183 @@ public class EventService {
     @Transactional
     public void deleteEvent(Long id) {
         Event event = eventRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Événement non trouvé avec l'ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("event.not_found", "Événement non trouvé avec l'ID: " + id));
         event.setIsActive(false);
         eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(id, EventChangedEvent.Kind.DELETED));
     }
     
     @Transactional
     public EventRegistration registerUserForEvent(Long eventId, Long userId, String participantName, 
                                                  String participantEmail, String notes) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Événement non trouvé avec l'ID: " + eventId));
+        // A sold-out event is turned away before any query
+        eventCapacity.rejectIfKnownFull(eventId);
+        Event event = openEvent(eventId);
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé avec l'ID: " + userId));
-
-        // Check if event is full
-        Long currentRegistrations = eventRegistrationRepository.countConfirmedRegistrationsByEventId(eventId);
-        if (currentRegistrations >= event.getMaxParticipants()) {
-            throw new RuntimeException("L'événement est complet");
-        }
-
-        // Check if registration deadline has passed
-        if (LocalDateTime.now().isAfter(event.getRegistrationDeadline())) {
-            throw new RuntimeException("La date limite d'inscription est dépassée");
-        }
-
-        // Check if event date has passed
-        if (LocalDateTime.now().isAfter(event.getEventDate())) {
-            throw new RuntimeException("Cet événement est déjà passé");
-        }
+        // Locked so a double submit can't pass the check below twice and take two seats
+        User user = userRepository.findForUpdateById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("user.not_found", "Utilisateur non trouvé avec l'ID: " + userId));
 
         // Check if user is already registered
         Optional<EventRegistration> existingRegistrationOpt = eventRegistrationRepository.findByUserIdAndEventId(userId, eventId);
+        if (existingRegistrationOpt.isPresent()
+                && existingRegistrationOpt.get().getStatus() == EventRegistration.RegistrationStatus.CONFIRMED) {
+            throw new BusinessRuleException("registration.duplicate", "Vous êtes déjà inscrit à cet événement");
+        }
+
         if (existingRegistrationOpt.isPresent()) {
+            // Reactivate the cancelled registration. Flushed before taking the seat, so the registration
+            // row is locked before the event row, in the same order as in cancelRegistration
             EventRegistration existingRegistration = existingRegistrationOpt.get();
-            if (existingRegistration.getStatus() == EventRegistration.RegistrationStatus.CONFIRMED) {
-                throw new RuntimeException("Vous êtes déjà inscrit à cet événement");
-            } else if (existingRegistration.getStatus() == EventRegistration.RegistrationStatus.CANCELLED) {
-                // Reactivate the registration
-                existingRegistration.setStatus(EventRegistration.RegistrationStatus.CONFIRMED);
-                existingRegistration.setParticipantName(participantName);
-                existingRegistration.setParticipantEmail(participantEmail);
-                existingRegistration.setNotes(notes);
-                existingRegistration.setRegistrationDate(LocalDateTime.now());
-                EventRegistration savedRegistration = eventRegistrationRepository.save(existingRegistration);
-                // Update current participants count
-                event.setCurrentParticipants(currentRegistrations.intValue() + 1);
-                eventRepository.save(event);
-                return savedRegistration;
-            }
+            existingRegistration.setStatus(EventRegistration.RegistrationStatus.CONFIRMED);
+            existingRegistration.setParticipantName(participantName);
+            existingRegistration.setParticipantEmail(participantEmail);
+            existingRegistration.setNotes(notes);
+            existingRegistration.setRegistrationDate(LocalDateTime.now());
+            EventRegistration reactivated = eventRegistrationRepository.saveAndFlush(existingRegistration);
+            eventCapacity.reserve(eventId);
+            eventPublisher.publishEvent(new EventChangedEvent(eventId, EventChangedEvent.Kind.REGISTRATIONS));
+            return reactivated;
         }
 
+        // Take the seat last, so the event row stays locked only for the insert and the commit
+        eventCapacity.reserve(eventId);
+        eventPublisher.publishEvent(new EventChangedEvent(eventId, EventChangedEvent.Kind.REGISTRATIONS));
+
         EventRegistration registration = new EventRegistration(event, user, participantName, participantEmail);
         registration.setNotes(notes);
         registration.setStatus(EventRegistration.RegistrationStatus.CONFIRMED);
 
-        EventRegistration savedRegistration = eventRegistrationRepository.save(registration);
+        return eventRegistrationRepository.save(registration);
+    }
+    
+    /**
+     * Registers several participants under one user, in one transaction. Participants that fail
+     * their own checks are rejected in the response and the others are registered; their seats
+     * are taken all at once, or the whole request fails if fewer are left.
+     */
+    @Transactional
+    public GroupRegistrationResponse registerGroupForEvent(Long eventId, Long userId, List<EventRegistrationRequest> participants) {
+        eventCapacity.rejectIfKnownFull(eventId);
+        Event event = openEvent(eventId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("user.not_found", "Utilisateur non trouvé avec l'ID: " + userId));
+
+        ParticipantResult[] results = new ParticipantResult[participants.size()];
+        // Lowercased email -> index of the participant, for those still accepted
+        Map<String, Integer> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < participants.size(); i++) {
+            EventRegistrationRequest participant = participants.get(i);
+            Set<ConstraintViolation<EventRegistrationRequest>> violations = validator.validate(participant);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<EventRegistrationRequest> violation = violations.iterator().next();
+                results[i] = rejected(i, participant, "registration.invalid", violation.getPropertyPath() + ": " + violation.getMessage());
+            } else if (accepted.putIfAbsent(participant.getParticipantEmail().trim().toLowerCase(Locale.ROOT), i) != null) {
+                results[i] = rejected(i, participant, "registration.duplicate_in_group", "Ce participant figure plusieurs fois dans le groupe");
+            }
+        }
+        if (!accepted.isEmpty()) {
+            for (String email : eventRegistrationRepository.findConfirmedEmails(eventId, accepted.keySet())) {
+                int i = accepted.remove(email);
+                results[i] = rejected(i, participants.get(i), "registration.duplicate", "Ce participant est déjà inscrit à cet événement");
+            }
+        }
+        if (accepted.isEmpty()) {
+            return new GroupRegistrationResponse(null, 0, List.of(results));
+        }
 
-        // Update current participants count
-        event.setCurrentParticipants(currentRegistrations.intValue() + 1);
-        eventRepository.save(event);
+        eventCapacity.reserve(eventId, accepted.size());
+        String groupId = UUID.randomUUID().toString();
+        List<EventRegistration> registrations = new ArrayList<>(accepted.size());
+        for (int i : accepted.values()) {
+            EventRegistrationRequest participant = participants.get(i);
+            EventRegistration registration = new EventRegistration(event, user, participant.getParticipantName().trim(),
+                    participant.getParticipantEmail().trim());
+            registration.setNotes(participant.getNotes());
+            registration.setStatus(EventRegistration.RegistrationStatus.CONFIRMED);
+            registration.setGroupId(groupId);
+            registrations.add(registration);
+        }
+        eventRegistrationRepository.insertAll(registrations);
+        eventPublisher.publishEvent(new EventChangedEvent(eventId, EventChangedEvent.Kind.REGISTRATIONS));
 
-        return savedRegistration;
+        int next = 0;
+        for (int i : accepted.values()) {
+            EventRegistration registration = registrations.get(next++);
+            results[i] = new ParticipantResult(i, registration.getParticipantEmail(), GroupRegistrationResponse.Outcome.REGISTERED,
+                    registration.getId(), null, null);
+        }
+        return new GroupRegistrationResponse(groupId, registrations.size(), List.of(results));
     }
     
     public List<EventRegistration> getUserRegistrations(Long userId) {
         return eventRegistrationRepository.findByUserId(userId);
     }
     
-    public List<EventRegistration> getUpcomingUserRegistrations(Long userId) {
-        return eventRegistrationRepository.findUpcomingEventsByUserId(userId);
+    @Transactional(readOnly = true)
+    public List<EventRegistrationDTO> getUpcomingUserRegistrations(Long userId) {
+        return eventRegistrationRepository.findUpcomingDTOsByUserId(userId);
     }
     
-    public List<EventRegistration> getEventRegistrations(Long eventId) {
-        return eventRegistrationRepository.findByEventId(eventId);
+    @Transactional(readOnly = true)
+    public List<EventRegistrationDTO> getEventRegistrations(Long eventId) {
+        return eventRegistrationRepository.findDTOsByEventId(eventId);
     }
     
     @Transactional
     public void cancelRegistration(Long registrationId, Long userId) {
         EventRegistration registration = eventRegistrationRepository.findById(registrationId)
-                .orElseThrow(() -> new RuntimeException("Inscription non trouvée"));
+                .orElseThrow(() -> new ResourceNotFoundException("registration.not_found", "Inscription non trouvée"));
         
         if (!registration.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Vous n'êtes pas autorisé à annuler cette inscription");
+            throw new BusinessRuleException(HttpStatus.FORBIDDEN, "registration.not_owner", "Vous n'êtes pas autorisé à annuler cette inscription");
         }
         
-        registration.setStatus(EventRegistration.RegistrationStatus.CANCELLED);
-        eventRegistrationRepository.save(registration);
+        // Cancelling twice, even concurrently, must not give the seat back twice: only the
+        // cancellation that actually moved the row from CONFIRMED releases it
+        if (eventRegistrationRepository.cancelIfConfirmed(registrationId) != 1) {
+            return;
+        }
         
-        // Update current participants count
-        Event event = registration.getEvent();
-        Long currentRegistrations = eventRegistrationRepository.countConfirmedRegistrationsByEventId(event.getId());
-        event.setCurrentParticipants(currentRegistrations.intValue());
-        eventRepository.save(event);
+        eventCapacity.release(registration.getEvent().getId());
+        eventPublisher.publishEvent(new EventChangedEvent(registration.getEvent().getId(), EventChangedEvent.Kind.REGISTRATIONS));
+    }
+
+    // The row, not this node's schedule: the dates may have been edited on another replica
+    private Event openEvent(Long eventId) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("event.not_found", "Événement non trouvé avec l'ID: " + eventId));
+        eventLifecycle.observe(eventId, event.getRegistrationDeadline(), event.getEventDate());
+        Event.LifecycleState state = EventLifecycleService.stateAt(event.getRegistrationDeadline(), event.getEventDate(), LocalDateTime.now());
+
+        if (state == Event.LifecycleState.CLOSED) {
+            throw new BusinessRuleException("event.registration_closed", "La date limite d'inscription est dépassée");
+        }
+        if (state == Event.LifecycleState.PAST) {
+            throw new BusinessRuleException("event.past", "Cet événement est déjà passé");
+        }
+        return event;
+    }
+
+    private static ParticipantResult rejected(int index, EventRegistrationRequest participant, String code, String message) {
+        return new ParticipantResult(index, participant.getParticipantEmail(), GroupRegistrationResponse.Outcome.REJECTED,
+                null, code, message);
+    }
+
+    private static String encodeCursor(LocalDateTime sortValue, Long id) {
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EventQueryRepository.Keyset decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new EventQueryRepository.Keyset(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessRuleException("events.invalid_cursor", "Curseur de pagination invalide");
+        }
     }
 
     public EventRegistrationDTO convertToEventRegistrationDTO(EventRegistration registration) {
@@ -0,0 +1,474 @@
+package com._com.JourneeMondiale.service;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+
+/**
+ * Inverted index over the name, type, location and description of events.
+ *
+ * Text is lowercased, stripped of accents and split into terms. Each term maps to an
+ * immutable posting list (event ordinals plus a field weight), replaced as a whole on write,
+ * so searches never lock. A query term matches the same term, terms it is a prefix of
+ * (search as you type), and, for typos, terms within a small edit distance found through
+ * a trigram index of the vocabulary.
+ *
+ * Writes are serialized; they are rare compared to searches.
+ */
+public class EventTextIndex {
+
+    // A match in the name counts most, then type and location, then the description
+    private static final int NAME_WEIGHT = 8;
+    private static final int TYPE_WEIGHT = 4;
+    private static final int LOCATION_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final float PREFIX_SIMILARITY = 0.8f;
+    private static final float ONE_TYPO_SIMILARITY = 0.6f;
+    private static final float TWO_TYPOS_SIMILARITY = 0.4f;
+
+    // Larger than any epoch second, so upcoming and past events get ranks of opposite signs
+    private static final long DATE_RANK_OFFSET = 1L << 40;
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingDouble(Hit::score)
+        .thenComparingLong(Hit::dateRank)
+        .reversed();
+
+    // Bounds the work a very short prefix can cause
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // term -> events containing it, by ordinal
+    private final ConcurrentSkipListMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+
+    // trigram -> terms containing it, to find candidates for typo matching
+    private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    // Events get dense ordinals so that searches can score them in plain arrays
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+
+    // ordinal -> document, null once removed; replaced by a larger copy when full
+    private volatile Document[] documents = new Document[64];
+
+    private int nextOrdinal;
+
+    // Score buffers reused across searches; there are only as many as concurrent searches
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    private int size;
+
+    /**
+     * Adds or replaces an event.
+     */
+    public synchronized void put(EventListingDTO event) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addTerms(terms, event.getName(), NAME_WEIGHT);
+        addTerms(terms, event.getEventType(), TYPE_WEIGHT);
+        addTerms(terms, event.getLocation(), LOCATION_WEIGHT);
+        addTerms(terms, event.getDescription(), DESCRIPTION_WEIGHT);
+
+        Integer existing = ordinals.get(event.getId());
+        int ordinal = existing != null ? existing : newOrdinal(event.getId());
+        Document previous = documents[ordinal];
+        if (previous != null) {
+            for (String term : previous.terms()) {
+                if (!terms.containsKey(term)) {
+                    unlink(term, ordinal);
+                }
+            }
+        } else {
+            size++;
+        }
+        terms.forEach((term, weight) -> link(term, ordinal, weight));
+        documents[ordinal] = new Document(event, terms.keySet().toArray(String[]::new));
+    }
+
+    /**
+     * Swaps the listing returned for an event whose text did not change, e.g. new participant counts.
+     */
+    public synchronized void refreshListing(EventListingDTO event) {
+        Integer ordinal = ordinals.get(event.getId());
+        if (ordinal != null && documents[ordinal] != null) {
+            documents[ordinal] = new Document(event, documents[ordinal].terms());
+        }
+    }
+
+    /**
+     * Removes an event. Its ordinal is not reused; rebuilding the index compacts them.
+     */
+    public synchronized void remove(Long eventId) {
+        Integer ordinal = ordinals.get(eventId);
+        if (ordinal == null || documents[ordinal] == null) {
+            return;
+        }
+        for (String term : documents[ordinal].terms()) {
+            unlink(term, ordinal);
+        }
+        documents[ordinal] = null;
+        size--;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Events matching any of the query terms, best first. Ties go to upcoming events,
+     * soonest first, then to past events, most recent first.
+     */
+    public List<EventListingDTO> search(String query, int limit, LocalDateTime now) {
+        Document[] docs = documents;
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null || scratch.scores.length < docs.length) {
+            scratch = new Scratch(docs.length);
+        }
+        List<EventListingDTO> results = search(query, limit, now, docs, scratch);
+        // Not returned to the pool if the search failed half way
+        scratch.clear();
+        scratchPool.offer(scratch);
+        return results;
+    }
+
+    private List<EventListingDTO> search(String query, int limit, LocalDateTime now, Document[] docs, Scratch scratch) {
+        float[] scores = scratch.scores;
+        float[] best = scratch.best;
+        int[] bestHits = scratch.bestHits;
+        int[] hits = scratch.hits;
+        int hitCount = 0;
+        for (String queryTerm : tokenize(query)) {
+            Map<String, Float> matches = expand(queryTerm);
+            if (matches.size() == 1) {
+                Map.Entry<String, Float> match = matches.entrySet().iterator().next();
+                hitCount = accumulate(postings.get(match.getKey()), match.getValue(), docs.length, scores, hits, hitCount);
+                continue;
+            }
+            // With several matching terms, an event scores the query term once, through its best match
+            int bestCount = 0;
+            for (Map.Entry<String, Float> match : matches.entrySet()) {
+                Postings list = postings.get(match.getKey());
+                if (list == null) {
+                    continue;
+                }
+                int[] listed = list.ordinals();
+                float[] weights = list.weights();
+                for (int i = 0; i < listed.length; i++) {
+                    int ordinal = listed[i];
+                    // Ordinals handed out after we took the documents array are skipped
+                    if (ordinal >= docs.length) {
+                        continue;
+                    }
+                    if (best[ordinal] == 0) {
+                        bestHits[bestCount++] = ordinal;
+                    }
+                    best[ordinal] = Math.max(best[ordinal], match.getValue() * weights[i]);
+                }
+            }
+            for (int i = 0; i < bestCount; i++) {
+                int ordinal = bestHits[i];
+                if (scores[ordinal] == 0) {
+                    hits[hitCount++] = ordinal;
+                }
+                scores[ordinal] += best[ordinal];
+                best[ordinal] = 0;
+            }
+        }
+        scratch.hitCount = hitCount;
+        if (hitCount == 0) {
+            return List.of();
+        }
+
+        long nowSeconds = now.toEpochSecond(ZoneOffset.UTC);
+        // Worst hit on top, so it is the one dropped past the limit
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        for (int i = 0; i < hitCount; i++) {
+            int ordinal = hits[i];
+            Document document = docs[ordinal];
+            if (document == null) {
+                continue;
+            }
+            long dateRank = dateRank(document.eventSeconds(), nowSeconds);
+            // Common terms give many equal scores: only a better date displaces the worst hit
+            if (top.size() == limit) {
+                Hit worst = top.peek();
+                if (scores[ordinal] < worst.score() || (scores[ordinal] == worst.score() && dateRank <= worst.dateRank())) {
+                    continue;
+                }
+            }
+            top.add(new Hit(document.event(), scores[ordinal], dateRank));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(BEST_FIRST);
+        return ranked.stream().map(Hit::event).toList();
+    }
+
+    private static int accumulate(Postings list, float similarity, int documentCount, float[] scores, int[] hits, int hitCount) {
+        if (list == null) {
+            return hitCount;
+        }
+        int[] listed = list.ordinals();
+        float[] weights = list.weights();
+        for (int i = 0; i < listed.length; i++) {
+            int ordinal = listed[i];
+            if (ordinal >= documentCount) {
+                continue;
+            }
+            if (scores[ordinal] == 0) {
+                hits[hitCount++] = ordinal;
+            }
+            scores[ordinal] += similarity * weights[i];
+        }
+        return hitCount;
+    }
+
+    /**
+     * Lowercased, accent-free terms of a text, in order and without duplicates.
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String normalized = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String term : SEPARATORS.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // Higher is better: upcoming events above past ones, among upcoming the soonest, among past the latest
+    private static long dateRank(long eventSeconds, long nowSeconds) {
+        return eventSeconds > nowSeconds ? DATE_RANK_OFFSET - eventSeconds : eventSeconds - DATE_RANK_OFFSET;
+    }
+
+    // Indexed terms a query term stands for, with how closely each one matches
+    private Map<String, Float> expand(String queryTerm) {
+        Map<String, Float> matches = new HashMap<>();
+        if (postings.containsKey(queryTerm)) {
+            matches.put(queryTerm, 1f);
+        }
+        if (queryTerm.length() >= 2) {
+            NavigableMap<String, Postings> prefixed = postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false);
+            int expansions = 0;
+            for (String term : prefixed.keySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.putIfAbsent(term, PREFIX_SIMILARITY);
+            }
+        }
+        int maxTypos = queryTerm.length() >= 8 ? 2 : queryTerm.length() >= 4 ? 1 : 0;
+        if (maxTypos > 0) {
+            Set<String> candidates = new LinkedHashSet<>();
+            for (String gram : trigramsOf(queryTerm)) {
+                Set<String> terms = trigrams.get(gram);
+                if (terms != null) {
+                    candidates.addAll(terms);
+                }
+            }
+            for (String candidate : candidates) {
+                if (matches.containsKey(candidate) || Math.abs(candidate.length() - queryTerm.length()) > maxTypos) {
+                    continue;
+                }
+                int distance = editDistance(queryTerm, candidate, maxTypos);
+                if (distance <= maxTypos) {
+                    matches.put(candidate, distance == 1 ? ONE_TYPO_SIMILARITY : TWO_TYPOS_SIMILARITY);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private int newOrdinal(Long eventId) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        ordinals.put(eventId, ordinal);
+        return ordinal;
+    }
+
+    private void link(String term, int ordinal, int weight) {
+        Postings current = postings.get(term);
+        if (current == null) {
+            postings.put(term, new Postings(new int[] {ordinal}, new float[] {weight}));
+            for (String gram : trigramsOf(term)) {
+                trigrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+            return;
+        }
+        postings.put(term, current.with(ordinal, weight));
+    }
+
+    private void unlink(String term, int ordinal) {
+        Postings current = postings.get(term);
+        if (current == null) {
+            return;
+        }
+        Postings remaining = current.without(ordinal);
+        if (remaining != null) {
+            postings.put(term, remaining);
+            return;
+        }
+        postings.remove(term);
+        for (String gram : trigramsOf(term)) {
+            Set<String> terms = trigrams.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    trigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Padded with spaces so that short terms still have trigrams and word edges count
+    private static List<String> trigramsOf(String term) {
+        String padded = " " + term + " ";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * giving up with {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private record Document(EventListingDTO event, String[] terms, long eventSeconds) {
+
+        Document(EventListingDTO event, String[] terms) {
+            this(event, terms, event.getEventDate().toEpochSecond(ZoneOffset.UTC));
+        }
+    }
+
+    // Per-ordinal scores plus the ordinals that have one, so clearing only touches those
+    private static final class Scratch {
+        final float[] scores;
+        final float[] best;
+        final int[] hits;
+        final int[] bestHits;
+        int hitCount;
+
+        Scratch(int length) {
+            scores = new float[length];
+            best = new float[length];
+            hits = new int[length];
+            bestHits = new int[length];
+        }
+
+        void clear() {
+            for (int i = 0; i < hitCount; i++) {
+                scores[hits[i]] = 0;
+            }
+            hitCount = 0;
+        }
+    }
+
+    private record Hit(EventListingDTO event, float score, long dateRank) {
+    }
+
+    // Parallel arrays sorted by ordinal; never modified once published
+    private record Postings(int[] ordinals, float[] weights) {
+
+        Postings with(int ordinal, float weight) {
+            int index = Arrays.binarySearch(ordinals, ordinal);
+            if (index >= 0) {
+                float[] newWeights = weights.clone();
+                newWeights[index] = weight;
+                return new Postings(ordinals, newWeights);
+            }
+            int insertAt = -index - 1;
+            int[] newOrdinals = new int[ordinals.length + 1];
+            float[] newWeights = new float[ordinals.length + 1];
+            System.arraycopy(ordinals, 0, newOrdinals, 0, insertAt);
+            System.arraycopy(weights, 0, newWeights, 0, insertAt);
+            newOrdinals[insertAt] = ordinal;
+            newWeights[insertAt] = weight;
+            System.arraycopy(ordinals, insertAt, newOrdinals, insertAt + 1, ordinals.length - insertAt);
+            System.arraycopy(weights, insertAt, newWeights, insertAt + 1, ordinals.length - insertAt);
+            return new Postings(newOrdinals, newWeights);
+        }
+
+        // Null once the last ordinal is gone
+        Postings without(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, ordinal);
+            if (index < 0) {
+                return this;
+            }
+            if (ordinals.length == 1) {
+                return null;
+            }
+            int[] newOrdinals = new int[ordinals.length - 1];
+            float[] newWeights = new float[ordinals.length - 1];
+            System.arraycopy(ordinals, 0, newOrdinals, 0, index);
+            System.arraycopy(weights, 0, newWeights, 0, index);
+            System.arraycopy(ordinals, index + 1, newOrdinals, index, ordinals.length - index - 1);
+            System.arraycopy(weights, index + 1, newWeights, index, ordinals.length - index - 1);
+            return new Postings(newOrdinals, newWeights);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com._com.JourneeMondiale.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timer wheel: a ring of buckets, one per tick. A timeout goes in the bucket
+ * of its deadline tick with the number of full turns left before it is due, so
+ * scheduling and cancelling are O(1) and each tick only looks at one bucket,
+ * however many timeouts are pending or how far away they are.
+ *
+ * Timeouts fire on the worker thread, at most one tick after their deadline.
+ * Tasks must be short; a slow task delays the timeouts behind it.
+ */
+class HashedTimerWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    private final long tickMillis;
+
+    private final long startMillis;
+
+    private final List<Timeout>[] buckets;
+
+    private final int mask;
+
+    // Scheduled from any thread, moved into the buckets by the worker
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Next tick to process; only touched by the worker
+    private long tick;
+
+    private volatile Thread worker;
+
+    @SuppressWarnings("unchecked")
+    HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = wheelSize - 1;
+    }
+
+    /**
+     * Runs {@code task} once the wall clock reaches {@code deadlineMillis}; right away (on the next tick) if it already has.
+     */
+    Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(deadlineMillis, task);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    int pendingCount() {
+        return pending.get();
+    }
+
+    void start(String threadName) {
+        Thread thread = new Thread(this::run, threadName);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}. Called by the worker; tests call it directly.
+     */
+    void advanceTo(long nowMillis) {
+        while (startMillis + tick * tickMillis <= nowMillis) {
+            transferIncoming();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                long nextTickAt = startMillis + tick * tickMillis;
+                long sleep = nextTickAt - System.currentTimeMillis();
+                if (sleep > 0) {
+                    Thread.sleep(sleep);
+                }
+                advanceTo(System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.done.get()) {
+                continue;
+            }
+            // First tick at or after the deadline, but never one that has already gone by
+            long deadlineTick = Math.max(tick, Math.floorDiv(timeout.deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.done.get()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                iterator.remove();
+                timeout.fire();
+            }
+        }
+    }
+
+    final class Timeout {
+
+        private final long deadlineMillis;
+
+        private final Runnable task;
+
+        private long remainingRounds;
+
+        // Set once, by whichever of cancel() and fire() comes first
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Timeout(long deadlineMillis, Runnable task) {
+            this.deadlineMillis = deadlineMillis;
+            this.task = task;
+        }
+
+        /**
+         * Idempotent; the timeout is dropped from its bucket the next time the wheel passes it.
+         */
+        void cancel() {
+            if (done.compareAndSet(false, true)) {
+                pending.decrementAndGet();
+            }
+        }
+
+        private void fire() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Timer task failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com._com.JourneeMondiale.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.payload.response.RecentSupporter;
+import com._com.JourneeMondiale.repository.DonationRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The latest succeeded donations, in a fixed-size ring held in memory, so the recent
+ * donations of the dashboard and the public supporters feed are served without a query.
+ *
+ * Appends claim a sequence number and write their slot with a compare-and-set; readers walk
+ * back from the newest sequence and skip slots whose sequence does not match, i.e. not
+ * written yet or already overwritten. Neither side takes a lock. The ring is filled from the
+ * database at startup and reloaded every {@code reloadMs}, which picks up donations
+ * recorded by other replicas.
+ */
+@Service
+public class RecentDonations {
+
+    private static final String SUCCEEDED = "succeeded";
+
+    private final DonationRepository donationRepository;
+
+    private final int capacity;
+
+    // Swapped whole by reload; a donation appended to the old ring during the query may miss the new one until the next reload
+    private volatile Ring ring;
+
+    public RecentDonations(DonationRepository donationRepository,
+                           @Value("${JourneeMondiale.app.recentDonations.capacity:200}") int capacity) {
+        this.donationRepository = donationRepository;
+        this.capacity = capacity;
+        this.ring = new Ring(capacity);
+    }
+
+    /**
+     * Succeeded donations created since the given time, newest first; at most the ring's capacity.
+     */
+    public List<Donation> latest(int limit, LocalDateTime since) {
+        return ring.newestFirst(limit, entry -> entry.donation().getCreatedAt() == null
+            || !entry.donation().getCreatedAt().isBefore(since))
+            .stream().map(Entry::donation).toList();
+    }
+
+    public List<RecentSupporter> supporters(int limit) {
+        return ring.newestFirst(limit, entry -> true).stream().map(Entry::supporter).toList();
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${JourneeMondiale.app.recentDonations.reloadMs:300000}",
+               initialDelayString = "${JourneeMondiale.app.recentDonations.reloadMs:300000}")
+    public void reload() {
+        List<Donation> latest = donationRepository.findByStatusOrderByCreatedAtDescIdDesc(SUCCEEDED, PageRequest.of(0, capacity));
+        Ring fresh = new Ring(capacity);
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            fresh.append(entry(latest.get(i)));
+        }
+        ring = fresh;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDonationChanged(DonationChangedEvent change) {
+        boolean succeeded = SUCCEEDED.equals(change.after().status());
+        boolean wasSucceeded = change.before() != null && SUCCEEDED.equals(change.before().status());
+        if (wasSucceeded) {
+            // Edited, or no longer succeeded: changed where it stands
+            ring.replace(change.donation().getId(), succeeded ? entry(change.donation()) : null);
+        } else if (succeeded) {
+            ring.append(entry(change.donation()));
+        }
+    }
+
+    // First name and initial of the last name: "Marie Dupont" -> "Marie D."
+    static String anonymize(String donorName) {
+        String[] parts = donorName == null ? new String[0] : donorName.trim().split("\\s+");
+        if (parts.length == 0 || parts[0].isEmpty()) {
+            return "Anonyme";
+        }
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        return parts[0] + " " + parts[parts.length - 1].substring(0, 1).toUpperCase() + ".";
+    }
+
+    // Copied: the ring outlives the persistence context of the write
+    private static Entry entry(Donation donation) {
+        RecentSupporter supporter = new RecentSupporter(anonymize(donation.getDonorName()), donation.getAmount(),
+            donation.getCurrency(), donation.getCreatedAt());
+        return new Entry(donation.copy(), supporter);
+    }
+
+    private record Entry(Donation donation, RecentSupporter supporter) {
+    }
+
+    // entry is null once the donation stopped being succeeded
+    private record Slot(long sequence, Entry entry) {
+    }
+
+    private static final class Ring {
+
+        private final AtomicReferenceArray<Slot> slots;
+
+        private final AtomicLong next = new AtomicLong();
+
+        Ring(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        void append(Entry entry) {
+            long sequence = next.getAndIncrement();
+            int index = index(sequence);
+            Slot fresh = new Slot(sequence, entry);
+            Slot current;
+            do {
+                current = slots.get(index);
+                if (current != null && current.sequence() > sequence) {
+                    // Lapped by a whole ring of newer appends while this one was slow
+                    return;
+                }
+            } while (!slots.compareAndSet(index, current, fresh));
+        }
+
+        void replace(Long donationId, Entry entry) {
+            for (int i = 0; i < slots.length(); i++) {
+                Slot slot = slots.get(i);
+                if (slot != null && slot.entry() != null && donationId.equals(slot.entry().donation().getId())) {
+                    slots.compareAndSet(i, slot, new Slot(slot.sequence(), entry));
+                }
+            }
+        }
+
+        List<Entry> newestFirst(int limit, Predicate<Entry> filter) {
+            int wanted = Math.max(0, Math.min(limit, slots.length()));
+            List<Entry> entries = new ArrayList<>(wanted);
+            long end = next.get();
+            for (long sequence = end - 1; sequence >= Math.max(0, end - slots.length()) && entries.size() < wanted; sequence--) {
+                Slot slot = slots.get(index(sequence));
+                if (slot != null && slot.sequence() == sequence && slot.entry() != null && filter.test(slot.entry())) {
+                    entries.add(slot.entry());
+                }
+            }
+            return entries;
+        }
+
+        private int index(long sequence) {
+            return (int) (sequence % slots.length());
+        }
+    }
+}
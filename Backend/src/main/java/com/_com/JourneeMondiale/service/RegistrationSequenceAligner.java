@@ -0,0 +1,55 @@
+package com._com.JourneeMondiale.service;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves {@code event_registrations_seq} past the existing registration ids at startup.
+ *
+ * Registration ids used to come from an IDENTITY column. On a database that already has
+ * registrations, ddl-auto creates the sequence starting at 1, so new rows would collide with
+ * existing ids. The sequence is restarted above {@code max(id)} whenever the next block it
+ * would hand out is not entirely free; otherwise it is left alone.
+ */
+@Component
+public class RegistrationSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationSequenceAligner.class);
+
+    static final String SEQUENCE = "event_registrations_seq";
+
+    // Must match the allocationSize of EventRegistration's generator
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Dialect dialect;
+
+    public RegistrationSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    // Runs before the application takes requests, so no registration is inserted meanwhile
+    @PostConstruct
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM event_registrations", Long.class);
+        // Costs one block of ids, but reads the sequence the same way on every database
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(SEQUENCE), Long.class);
+        // With the pooled optimizer, a value v stands for the ids (v - allocationSize, v]
+        if (next == null || maxId == null || next - ALLOCATION_SIZE >= maxId) {
+            return;
+        }
+        long restartWith = maxId + ALLOCATION_SIZE + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + restartWith);
+        logger.warn("Sequence {} was behind the registration ids (next {}, max id {}), restarted at {}",
+            SEQUENCE, next, maxId, restartWith);
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com._com.JourneeMondiale.model.Donation;
 import com._com.JourneeMondiale.payload.request.PaymentConfirmRequest;
@@ -28,6 +29,13 @@ public class StripeService {
     @Autowired
     private DonationRepository donationRepository;
 
+    @Autowired
+    private DonationRollupService donationRollupService;
+
+    // The Stripe calls stay outside: only the donation write and its rollup share a transaction
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @PostConstruct
     public void init() {
         Stripe.apiKey = stripeSecretKey;
@@ -107,7 +115,7 @@ public class StripeService {
      * 
      * @param paymentIntent Stripe PaymentIntent object containing payment details
      */
-    private void saveDonation(PaymentIntent paymentIntent) {
+    void saveDonation(PaymentIntent paymentIntent) {
         try {
             // Convert amount from cents to decimal
             BigDecimal amount = new BigDecimal(paymentIntent.getAmount()).divide(new BigDecimal(100));
@@ -119,31 +127,36 @@ public class StripeService {
             // Check if a donation with the same paymentIntent ID exists
             // Convert paymentIntent ID to Long if possible, otherwise handle appropriately
             String paymentIntentId = paymentIntent.getId();
-            Donation existingDonation = (paymentIntentId != null) ? donationRepository.findByPaymentIntentId(paymentIntentId).orElse(null) : null;
-            if (existingDonation != null) {
-                // Update status to succeeded and update other fields if needed
-                existingDonation.setStatus("succeeded");
-                existingDonation.setAmount(amount);
-                existingDonation.setCurrency(paymentIntent.getCurrency().toUpperCase());
-                existingDonation.setDonorName(customerName);
-                existingDonation.setDonorEmail(customerEmail);
-                existingDonation.setDescription(paymentIntent.getDescription());
-                donationRepository.save(existingDonation);
-            } else {
-                // Create and save donation record
-                Donation donation = new Donation(
-                    paymentIntent.getId(),
-                    amount,
-                    paymentIntent.getCurrency().toUpperCase(),
-                    customerName,
-                    customerEmail,
-                    paymentIntent.getDescription(),
-                    "succeeded"
-                );
-                donationRepository.save(donation);
-                System.out.println("Donation saved: " + donation.getId() +
-                    " - " + customerName + " donated " + amount + " " + paymentIntent.getCurrency());
-            }
+            transactionTemplate.executeWithoutResult(transaction -> {
+                Donation existingDonation = (paymentIntentId != null) ? donationRepository.findForUpdateByPaymentIntentId(paymentIntentId).orElse(null) : null;
+                if (existingDonation != null) {
+                    // Update status to succeeded and update other fields if needed
+                    DonationRollupService.Contribution before = DonationRollupService.Contribution.of(existingDonation);
+                    existingDonation.setStatus("succeeded");
+                    existingDonation.setAmount(amount);
+                    existingDonation.setCurrency(paymentIntent.getCurrency().toUpperCase());
+                    existingDonation.setDonorName(customerName);
+                    existingDonation.setDonorEmail(customerEmail);
+                    existingDonation.setDescription(paymentIntent.getDescription());
+                    donationRepository.save(existingDonation);
+                    donationRollupService.replace(before, existingDonation);
+                } else {
+                    // Create and save donation record
+                    Donation donation = new Donation(
+                        paymentIntent.getId(),
+                        amount,
+                        paymentIntent.getCurrency().toUpperCase(),
+                        customerName,
+                        customerEmail,
+                        paymentIntent.getDescription(),
+                        "succeeded"
+                    );
+                    donationRepository.save(donation);
+                    donationRollupService.add(donation);
+                    System.out.println("Donation saved: " + donation.getId() +
+                        " - " + customerName + " donated " + amount + " " + paymentIntent.getCurrency());
+                }
+            });
         } catch (Exception e) {
             System.err.println("Error saving donation: " + e.getMessage());
             // Log error but don't throw exception to avoid failing the payment confirmation
@@ -175,7 +188,10 @@ public class StripeService {
                 "failed"
             );
 
-            donationRepository.save(donation);
+            transactionTemplate.executeWithoutResult(transaction -> {
+                donationRepository.save(donation);
+                donationRollupService.add(donation);
+            });
 
             System.out.println("Failed donation saved: " + donation.getId() +
                 " - " + customerName + " attempted to donate " + amount + " " + paymentIntent.getCurrency());
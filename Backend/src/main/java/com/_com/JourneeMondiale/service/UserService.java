@@ -3,11 +3,16 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.exception.ResourceNotFoundException;
 import com._com.JourneeMondiale.model.User;
 import com._com.JourneeMondiale.repository.UserRepository;
+import com._com.JourneeMondiale.security.services.SecurityVersionRegistry;
+import com._com.JourneeMondiale.security.services.UserInvalidation;
+import com._com.JourneeMondiale.security.services.UserInvalidationBus;
 
 @Service
 public class UserService {
@@ -15,14 +20,17 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserInvalidationBus invalidationBus;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     public User getUserById(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        return userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("user.not_found", "User not found with id: " + id));
     }
 
     public User createUser(User user) {
@@ -30,7 +38,7 @@ public class UserService {
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        return saveAndInvalidate(user);
     }
 
     public User updateUser(Long id, User userDetails) {
@@ -41,13 +49,15 @@ public class UserService {
         user.setFirstName(userDetails.getFirstName());
         user.setLastName(userDetails.getLastName());
         user.setRole(userDetails.getRole());
+        bumpSecurityVersion(user);
         
-        return userRepository.save(user);
+        return saveAndInvalidate(user);
     }
 
     public void deleteUser(Long id) {
         User user = getUserById(id);
         userRepository.delete(user);
+        invalidationBus.publish(UserInvalidation.of(id, SecurityVersionRegistry.DELETED));
     }
 
     public List<User> searchUsers(String searchTerm, String role) {
@@ -74,7 +84,7 @@ public class UserService {
     // New methods for current user profile management
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
+            .orElseThrow(() -> new ResourceNotFoundException("user.not_found", "User not found with username: " + username));
     }
 
     public User updateUserProfile(String username, User userDetails) {
@@ -90,23 +100,39 @@ public class UserService {
         if (userDetails.getEmail() != null) {
             user.setEmail(userDetails.getEmail());
         }
-        if (userDetails.getUsername() != null) {
+        if (userDetails.getUsername() != null && !userDetails.getUsername().equals(user.getUsername())) {
+            // Tokens carry the username as subject, so older ones must not be trusted anymore
             user.setUsername(userDetails.getUsername());
+            bumpSecurityVersion(user);
         }
-        return userRepository.save(user);
+        return saveAndInvalidate(user);
     }
 
-    public void changePassword(String username, String oldPassword, String newPassword) {
+    public User changePassword(String username, String oldPassword, String newPassword) {
         User user = getUserByUsername(username);
         
         // Verify old password
         if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
-            throw new RuntimeException("Old password is incorrect");
+            throw new BusinessRuleException("user.password_mismatch", "Old password is incorrect");
         }
         
         // Hash and set new password
         user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        bumpSecurityVersion(user);
+        return saveAndInvalidate(user);
+    }
+
+    // Invalidate every token issued before this change
+    private void bumpSecurityVersion(User user) {
+        long current = user.getSecurityVersion() != null ? user.getSecurityVersion() : 0L;
+        user.setSecurityVersion(current + 1);
+    }
+
+    // Cached principals and security versions are refreshed on every replica
+    private User saveAndInvalidate(User user) {
+        User saved = userRepository.save(user);
+        invalidationBus.publish(UserInvalidation.of(saved));
+        return saved;
     }
 }
 
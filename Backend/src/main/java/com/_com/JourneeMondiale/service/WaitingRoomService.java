@@ -0,0 +1,181 @@
+package com._com.JourneeMondiale.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.payload.response.QueueStatusResponse;
+import com._com.JourneeMondiale.security.Jwt.QueueTicketSigner;
+import com._com.JourneeMondiale.security.Jwt.QueueTicketSigner.Ticket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Virtual waiting room in front of event registration. Users join a per-event queue
+ * and get a signed ticket carrying their place; the queue is advanced at a fixed rate,
+ * and only tickets it has passed may register. Positions are computed from two counters,
+ * so polling them never touches the database.
+ *
+ * Queues live in memory, so with several replicas each one admits at the configured rate.
+ * A ticket names the queue instance that issued it and is only honoured by that queue: after
+ * a restart, once an idle queue was dropped, or on another replica, the user has to join again
+ * (so the load balancer must keep a user on one node while they wait).
+ */
+@Service
+public class WaitingRoomService {
+
+    public static final String TICKET_HEADER = "X-Queue-Ticket";
+
+    private final QueueTicketSigner ticketSigner;
+
+    private final boolean enabled;
+
+    private final double admissionsPerSecond;
+
+    private final long ticketTtlMs;
+
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+
+    public WaitingRoomService(QueueTicketSigner ticketSigner, MeterRegistry meterRegistry,
+                              @Value("${JourneeMondiale.app.waitingRoom.enabled:false}") boolean enabled,
+                              @Value("${JourneeMondiale.app.waitingRoom.admissionsPerSecond:10}") double admissionsPerSecond,
+                              @Value("${JourneeMondiale.app.waitingRoom.ticketTtlMs:900000}") long ticketTtlMs) {
+        this.ticketSigner = ticketSigner;
+        this.enabled = enabled;
+        this.admissionsPerSecond = admissionsPerSecond;
+        this.ticketTtlMs = ticketTtlMs;
+
+        Gauge.builder("waiting.room.queued", queues, WaitingRoomService::queuedCount).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Joins the queue of an event. A user holds one place per event: joining again
+     * returns a fresh ticket for the same place.
+     */
+    public QueueStatusResponse join(Long eventId, Long userId) {
+        EventQueue queue = queues.computeIfAbsent(eventId, id -> new EventQueue());
+        long sequence = queue.places.computeIfAbsent(userId, id -> queue.issued.incrementAndGet());
+        queue.lastJoinMillis = System.currentTimeMillis();
+        String ticket = ticketSigner.sign(new Ticket(userId, eventId, queue.id, sequence), ticketTtlMs);
+        return status(queue, sequence, ticket);
+    }
+
+    public QueueStatusResponse position(Long eventId, String token) {
+        Ticket ticket = ticketSigner.verify(token);
+        EventQueue queue = queueOf(ticket, eventId);
+        return status(queue, ticket.sequence(), null);
+    }
+
+    /**
+     * Lets a registration through only with an admitted ticket for this user and event.
+     */
+    public void checkAdmitted(Long eventId, Long userId, String token) {
+        if (!enabled) {
+            return;
+        }
+        Ticket ticket = ticketSigner.verify(token);
+        EventQueue queue = queueOf(ticket, eventId);
+        if (!ticket.userId().equals(userId)) {
+            throw ticketRequired();
+        }
+        if (ticket.sequence() > queue.admitted) {
+            throw new BusinessRuleException(HttpStatus.TOO_MANY_REQUESTS, "queue.not_admitted",
+                "Votre tour n'est pas encore arrivé, merci de patienter");
+        }
+    }
+
+    /**
+     * Frees the user's place once they have registered, so joining again starts over.
+     */
+    public void leave(Long eventId, Long userId) {
+        EventQueue queue = queues.get(eventId);
+        if (queue != null) {
+            queue.places.remove(userId);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${JourneeMondiale.app.waitingRoom.tickMs:200}")
+    public void advance() {
+        advance(System.nanoTime(), System.currentTimeMillis());
+    }
+
+    void advance(long nowNanos, long nowMillis) {
+        queues.forEach((eventId, queue) -> {
+            queue.advance(nowNanos, admissionsPerSecond);
+            // Forget drained queues once every ticket issued for them has expired, so none is orphaned
+            if (queue.admitted >= queue.issued.get() && nowMillis - queue.lastJoinMillis > ticketTtlMs) {
+                queues.remove(eventId, queue);
+            }
+        });
+    }
+
+    // The queue that issued a valid ticket for this event; a ticket from any other queue must join again
+    private EventQueue queueOf(Ticket ticket, Long eventId) {
+        if (ticket == null || !ticket.eventId().equals(eventId)) {
+            throw ticketRequired();
+        }
+        EventQueue queue = queues.get(eventId);
+        if (queue == null || !queue.id.equals(ticket.queueId())) {
+            throw ticketRequired();
+        }
+        return queue;
+    }
+
+    private QueueStatusResponse status(EventQueue queue, long sequence, String ticket) {
+        long position = Math.max(0, sequence - queue.admitted);
+        boolean admitted = position == 0;
+        // Ask clients to poll about twice before their turn, between 1 and 10 seconds apart
+        long pollAfterMs = admitted ? 0
+            : Math.min(10_000, Math.max(1_000, (long) (position * 500 / Math.max(admissionsPerSecond, 0.001))));
+        return new QueueStatusResponse(ticket, position, admitted, pollAfterMs);
+    }
+
+    private static BusinessRuleException ticketRequired() {
+        return new BusinessRuleException(HttpStatus.PRECONDITION_REQUIRED, "queue.ticket_required",
+            "Un ticket de file d'attente valide est requis pour cet événement");
+    }
+
+    private static double queuedCount(Map<Long, EventQueue> queues) {
+        long queued = 0;
+        for (EventQueue queue : queues.values()) {
+            queued += Math.max(0, queue.issued.get() - queue.admitted);
+        }
+        return queued;
+    }
+
+    private static final class EventQueue {
+        // Told apart from earlier queues of the same event, here or on other nodes
+        final String id = UUID.randomUUID().toString();
+        // Last place handed out
+        final AtomicLong issued = new AtomicLong();
+        // userId -> place
+        final Map<Long, Long> places = new ConcurrentHashMap<>();
+        // Places up to this one may register; only written by the scheduler thread
+        volatile long admitted;
+        volatile long lastJoinMillis = System.currentTimeMillis();
+        private double carry;
+        private long lastTickNanos = System.nanoTime();
+
+        void advance(long nowNanos, double perSecond) {
+            double allowance = carry + perSecond * (nowNanos - lastTickNanos) / 1_000_000_000.0;
+            lastTickNanos = nowNanos;
+            long whole = (long) allowance;
+            long target = Math.min(admitted + whole, issued.get());
+            // Don't bank admissions while nobody is waiting, or the next rush would get in at once
+            carry = target < admitted + whole ? 0 : allowance - whole;
+            admitted = target;
+        }
+    }
+}
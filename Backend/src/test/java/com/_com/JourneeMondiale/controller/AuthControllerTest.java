@@ -0,0 +1,103 @@
+package com._com.JourneeMondiale.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com._com.JourneeMondiale.security.Jwt.JwtUtils;
+import com._com.JourneeMondiale.security.services.UserDetailsImpl;
+import com._com.JourneeMondiale.security.services.UserDetailsServiceImpl;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Test
+	void signedOutTokenIsRejectedEvenIfReplayed() throws Exception {
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"signout_user","email":"signout@x.io","firstName":"Sign","lastName":"Out","password":"secret123"}
+						"""))
+				.andExpect(status().isOk());
+		Cookie jwt = mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"signout_user","password":"secret123"}
+						"""))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getCookie("jwt");
+
+		mockMvc.perform(get("/api/auth/me").cookie(jwt)).andExpect(status().isOk());
+
+		mockMvc.perform(post("/api/auth/signout").cookie(jwt)).andExpect(status().isOk());
+
+		// The browser drops the cookie, a copy of the token must not work either
+		mockMvc.perform(get("/api/auth/me").cookie(jwt)).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void duplicateSignupIsDecidedByTheUniqueConstraints() throws Exception {
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"dup_user","email":"dup@x.io","firstName":"Dup","lastName":"User","password":"secret123"}
+						"""))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"dup_user","email":"other@x.io","firstName":"Dup","lastName":"User","password":"secret123"}
+						"""))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("auth.username_taken"));
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"dup_other","email":"dup@x.io","firstName":"Dup","lastName":"User","password":"secret123"}
+						"""))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("auth.email_taken"));
+	}
+
+	@Test
+	void tokensWithoutAKnownRoleAreUnauthorized() throws Exception {
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"role_user","email":"role@x.io","firstName":"Role","lastName":"User","password":"secret123"}
+						"""))
+				.andExpect(status().isOk());
+		UserDetailsImpl user = (UserDetailsImpl) userDetailsService.loadUserByUsername("role_user");
+
+		mockMvc.perform(get("/api/auth/me").cookie(tokenWithRole(user, "ROLE_USER"))).andExpect(status().isOk());
+		mockMvc.perform(get("/api/auth/me").cookie(tokenWithRole(user, null))).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/auth/me").cookie(tokenWithRole(user, "ROLE_ROOT"))).andExpect(status().isUnauthorized());
+	}
+
+	private Cookie tokenWithRole(UserDetailsImpl user, String role) {
+		Map<String, Object> claims = user.toClaims();
+		if (role == null) {
+			claims.remove(UserDetailsImpl.CLAIM_ROLE);
+		} else {
+			claims.put(UserDetailsImpl.CLAIM_ROLE, role);
+		}
+		return new Cookie("jwt", jwtUtils.generateTokenFromUsername(user.getUsername(), claims));
+	}
+}
@@ -0,0 +1,56 @@
+package com._com.JourneeMondiale.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+// Runs on a real Tomcat: the forwarded client IP is resolved by its RemoteIpValve, which MockMvc skips
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"server.forward-headers-strategy=native",
+		"server.tomcat.remoteip.internal-proxies=127\\.0\\.0\\.1|0:0:0:0:0:0:0:1",
+		"JourneeMondiale.app.signinThrottle.ip.capacity=2",
+		"JourneeMondiale.app.signinThrottle.ip.refillPerMinute=1"
+})
+class SigninForwardedIpTest {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void clientsBehindTheProxyHaveTheirOwnBudget() {
+		assertThat(signin("203.0.113.1", "fwd_a")).isEqualTo(HttpStatus.UNAUTHORIZED);
+		assertThat(signin("203.0.113.1", "fwd_b")).isEqualTo(HttpStatus.UNAUTHORIZED);
+		assertThat(signin("203.0.113.1", "fwd_c")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+		// Same proxy, another client
+		assertThat(signin("203.0.113.2", "fwd_d")).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	@Test
+	void spoofedEntriesBeforeTheProxysOwnAreIgnored() {
+		assertThat(signin("198.51.100.1", "spoof_a")).isEqualTo(HttpStatus.UNAUTHORIZED);
+		assertThat(signin("198.51.100.1", "spoof_b")).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+		// The proxy appends the address it saw; whatever the client put in front of it does not count
+		assertThat(signin("10.9.9.9, 198.51.100.1", "spoof_c")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+	}
+
+	private HttpStatus signin(String forwardedFor, String username) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set("X-Forwarded-For", forwardedFor);
+		String body = """
+				{"username":"%s","password":"wrong-password"}
+				""".formatted(username);
+		return HttpStatus.valueOf(restTemplate.postForEntity("/api/auth/signin", new HttpEntity<>(body, headers), String.class)
+				.getStatusCode().value());
+	}
+}
@@ -0,0 +1,171 @@
+package com._com.JourneeMondiale.exception;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com._com.JourneeMondiale.security.HashingCapacityExceededException;
+import com._com.JourneeMondiale.security.SigninRateLimitedException;
+import com.stripe.exception.ApiConnectionException;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(GlobalExceptionHandlerTest.FailingController.class)
+class GlobalExceptionHandlerTest {
+
+	@RestController
+	static class FailingController {
+
+		@GetMapping("/test/errors/{kind}")
+		String fail(@PathVariable String kind) throws Exception {
+			throw switch (kind) {
+				case "api" -> new BusinessRuleException(HttpStatus.CONFLICT, "event.full", "Event is full");
+				case "not-found" -> new ResourceNotFoundException("event.not_found", "Event not found");
+				case "bad-credentials" -> new BadCredentialsException("nope");
+				case "authentication" -> new InsufficientAuthenticationException("nope");
+				case "access-denied" -> new AccessDeniedException("nope");
+				case "signin-throttled" -> new SigninRateLimitedException(7);
+				case "hashing-busy" -> new HashingCapacityExceededException(2);
+				case "integrity" -> new DataIntegrityViolationException("duplicate key");
+				case "stripe" -> new ApiConnectionException("Stripe is down");
+				default -> new IllegalStateException("boom");
+			};
+		}
+
+		@GetMapping("/test/errors-with-param")
+		String needsParam(@RequestParam int page) {
+			return "page " + page;
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	@WithMockUser
+	void apiExceptionsKeepTheirStatusAndCode() throws Exception {
+		expectProblem(mockMvc.perform(get("/test/errors/api")), 409, "event.full")
+				.andExpect(jsonPath("$.message").value("Event is full"))
+				.andExpect(jsonPath("$.error").value("Event is full"));
+		expectProblem(mockMvc.perform(get("/test/errors/not-found")), 404, "event.not_found");
+	}
+
+	@Test
+	@WithMockUser
+	void securityExceptionsAreConstantProblems() throws Exception {
+		expectProblem(mockMvc.perform(get("/test/errors/bad-credentials")), 401, ProblemResponses.BAD_CREDENTIALS);
+		expectProblem(mockMvc.perform(get("/test/errors/authentication")), 401, ProblemResponses.UNAUTHORIZED);
+		expectProblem(mockMvc.perform(get("/test/errors/access-denied")), 403, ProblemResponses.FORBIDDEN);
+		expectProblem(mockMvc.perform(get("/test/errors/signin-throttled")), 429, ProblemResponses.SIGNIN_THROTTLED)
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+		expectProblem(mockMvc.perform(get("/test/errors/hashing-busy")), 503, ProblemResponses.HASHING_BUSY)
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+	}
+
+	@Test
+	@WithMockUser
+	void infrastructureExceptionsDoNotLeakDetails() throws Exception {
+		expectProblem(mockMvc.perform(get("/test/errors/integrity")), 409, ProblemResponses.CONFLICT);
+		expectProblem(mockMvc.perform(get("/test/errors/stripe")), 500, "payment.provider_error");
+		expectProblem(mockMvc.perform(get("/test/errors/other")), 500, ProblemResponses.INTERNAL)
+				.andExpect(jsonPath("$.detail").value("An unexpected error occurred"));
+	}
+
+	@Test
+	@WithMockUser
+	void springMvcErrorsGetACodeFromTheirStatus() throws Exception {
+		expectProblem(mockMvc.perform(get("/test/errors-with-param")), 400, "request.bad_request");
+		// Bean validation failure
+		expectProblem(mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"","password":""}
+						""")), 400, "request.bad_request")
+				.andExpect(jsonPath("$.message").exists())
+				.andExpect(jsonPath("$.error").exists());
+		// Unreadable body
+		expectProblem(mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+				.content("{")), 400, "request.bad_request");
+	}
+
+	@Test
+	void requestsWithoutTokenAreRejectedByTheEntryPoint() throws Exception {
+		expectProblem(mockMvc.perform(get("/api/users/")), 401, ProblemResponses.UNAUTHORIZED);
+	}
+
+	@Test
+	void userEndpointsAnswerWithProblems() throws Exception {
+		Cookie admin = signUpAndIn("errors_admin", "admin");
+		Cookie user = signUpAndIn("errors_user", null);
+
+		expectProblem(mockMvc.perform(get("/api/users/").cookie(user)), 403, ProblemResponses.FORBIDDEN);
+		expectProblem(mockMvc.perform(get("/api/users/999999").cookie(admin)), 404, "user.not_found");
+		// Used to be a 400 with an empty body
+		expectProblem(mockMvc.perform(post("/api/users/").cookie(admin).contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"errors_user","email":"other@x.io","firstName":"Dup","lastName":"User","password":"secret123","role":"USER"}
+						""")), 409, ProblemResponses.CONFLICT);
+		// Used to be a 400 with the message as plain text
+		expectProblem(mockMvc.perform(put("/api/users/me/password").cookie(user).contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"oldPassword":"wrong-password","newPassword":"secret456"}
+						""")), 400, "user.password_mismatch")
+				.andExpect(jsonPath("$.message").value("Old password is incorrect"));
+	}
+
+	@Test
+	void wrongPasswordOnSigninIsBadCredentials() throws Exception {
+		signUpAndIn("errors_signin", null);
+
+		expectProblem(mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"errors_signin","password":"wrong-password"}
+						""")), 401, ProblemResponses.BAD_CREDENTIALS);
+	}
+
+	private ResultActions expectProblem(ResultActions result, int status, String code) throws Exception {
+		return result.andExpect(status().is(status))
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+				.andExpect(jsonPath("$.status").value(status))
+				.andExpect(jsonPath("$.code").value(code));
+	}
+
+	private Cookie signUpAndIn(String username, String role) throws Exception {
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"%s","email":"%s@x.io","firstName":"Test","lastName":"User","password":"secret123","role":"%s"}
+						""".formatted(username, username, role == null ? "" : role)))
+				.andExpect(status().isOk());
+		return mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"username":"%s","password":"secret123"}
+						""".formatted(username)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getCookie("jwt");
+	}
+}
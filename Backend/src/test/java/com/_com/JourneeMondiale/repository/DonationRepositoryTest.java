@@ -0,0 +1,43 @@
+package com._com.JourneeMondiale.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.payload.response.DonationStatistics;
+
+@DataJpaTest
+class DonationRepositoryTest {
+
+	@Autowired
+	private DonationRepository donationRepository;
+
+	@Test
+	void statisticsComeFromOneGroupedQuery() {
+		donationRepository.save(new Donation("pi_1", new BigDecimal("10.00"), "eur", "A", "a@x.io", null, "succeeded"));
+		donationRepository.save(new Donation("pi_2", new BigDecimal("25.50"), "eur", "B", "b@x.io", null, "succeeded"));
+		donationRepository.save(new Donation("pi_3", new BigDecimal("5.00"), "eur", "C", "c@x.io", null, "pending"));
+		donationRepository.save(new Donation("pi_4", new BigDecimal("7.00"), "eur", "D", "d@x.io", null, "canceled"));
+
+		DonationStatistics all = DonationStatistics.from(donationRepository.getTotalsByStatus());
+		assertThat(all.totalCount()).isEqualTo(2);
+		assertThat(all.totalAmount()).isEqualByComparingTo("35.50");
+		assertThat(all.averageAmount()).isEqualTo(17.75);
+		assertThat(all.pendingCount()).isEqualTo(1);
+		assertThat(all.pendingAmount()).isEqualByComparingTo("5.00");
+		assertThat(all.failedCount()).isZero();
+		assertThat(all.failedAmount()).isEqualByComparingTo("0");
+
+		DonationStatistics none = DonationStatistics.from(donationRepository.getTotalsByStatusBetween(
+				LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+		assertThat(none.totalCount()).isZero();
+		assertThat(none.averageAmount()).isZero();
+		assertThat(none.succeededAmount()).isEqualByComparingTo("0");
+	}
+}
@@ -0,0 +1,80 @@
+package com._com.JourneeMondiale.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com._com.JourneeMondiale.dto.EventRegistrationDTO;
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.model.EventRegistration;
+import com._com.JourneeMondiale.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EventRegistrationRepositoryTest {
+
+	@Autowired
+	private EventRegistrationRepository registrationRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private User user;
+
+	private Event first;
+
+	@BeforeEach
+	void setUp() {
+		user = entityManager.persist(new User("runner", "runner@x.io", "Ru", "Nner", "hash", "user"));
+		first = entityManager.persist(new Event("Semi", "21 km", "Paris",
+				LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(5), 100, "RUN"));
+		Event second = entityManager.persist(new Event("10 km", "10 km", "Lyon",
+				LocalDateTime.now().plusDays(20), LocalDateTime.now().plusDays(15), 100, "RUN"));
+		for (Event event : List.of(first, second)) {
+			for (int i = 0; i < 3; i++) {
+				entityManager.persist(new EventRegistration(event, user, "P" + i, "p" + i + "@x.io"));
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void upcomingRegistrationsOfAUserTakeOneQuery() {
+		List<EventRegistrationDTO> registrations = registrationRepository.findUpcomingDTOsByUserId(user.getId());
+
+		assertThat(registrations).hasSize(6);
+		assertThat(registrations.get(0).getEvent().getName()).isEqualTo("Semi");
+		assertThat(registrations.get(5).getEvent().getLocation()).isEqualTo("Lyon");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void registrationsOfAnEventTakeOneQuery() {
+		List<EventRegistrationDTO> registrations = registrationRepository.findDTOsByEventId(first.getId());
+
+		assertThat(registrations).hasSize(3)
+				.allSatisfy(registration -> assertThat(registration.getEvent().getId()).isEqualTo(first.getId()));
+		assertThat(registrations.get(0).getStatus()).isEqualTo("CONFIRMED");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+}
@@ -0,0 +1,63 @@
+package com._com.JourneeMondiale.security.Jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Base64;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com._com.JourneeMondiale.security.Jwt.QueueTicketSigner.Ticket;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class QueueTicketSignerTest {
+
+	private static final byte[] SECRET = "a-test-secret-long-enough-for-hmac-sha-256-keys".getBytes();
+
+	private final QueueTicketSigner signer = new QueueTicketSigner();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(signer, "jwtSecret", Base64.getEncoder().encodeToString(SECRET));
+		signer.init();
+	}
+
+	@Test
+	void signedTicketVerifiesToTheSameTicket() {
+		Ticket ticket = new Ticket(7L, 3L, "queue-1", 42);
+
+		assertThat(signer.verify(signer.sign(ticket, 60000))).isEqualTo(ticket);
+	}
+
+	@Test
+	void tamperedExpiredOrMissingTicketsAreRejected() {
+		String token = signer.sign(new Ticket(7L, 3L, "queue-1", 42), 60000);
+		String[] parts = token.split("\\.");
+		String otherPayload = signer.sign(new Ticket(7L, 3L, "queue-1", 1), 60000).split("\\.")[1];
+
+		assertThat(signer.verify(parts[0] + "." + otherPayload + "." + parts[2])).isNull();
+		assertThat(signer.verify(signer.sign(new Ticket(7L, 3L, "queue-1", 42), -1000))).isNull();
+		assertThat(signer.verify(null)).isNull();
+		assertThat(signer.verify("")).isNull();
+	}
+
+	@Test
+	void sessionTokensDoNotPassAsTickets() {
+		// Signed like a session token, with the JWT secret itself
+		String sessionToken = Jwts.builder()
+				.setSubject("7")
+				.claim("evt", 3L)
+				.claim("qid", "queue-1")
+				.claim("seq", 1L)
+				.setExpiration(new Date(System.currentTimeMillis() + 60000))
+				.signWith(Keys.hmacShaKeyFor(SECRET), SignatureAlgorithm.HS256)
+				.compact();
+
+		assertThat(signer.verify(sessionToken)).isNull();
+	}
+}
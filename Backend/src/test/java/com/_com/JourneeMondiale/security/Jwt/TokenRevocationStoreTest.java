@@ -0,0 +1,72 @@
+package com._com.JourneeMondiale.security.Jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com._com.JourneeMondiale.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+class TokenRevocationStoreTest {
+
+	@Autowired
+	private RevokedTokenRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private TokenRevocationStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new TokenRevocationStore(repository, new SimpleMeterRegistry(), 60000);
+		store.init();
+	}
+
+	@Test
+	void revocationReachesOtherNodeOnNextPoll() {
+		TokenRevocationStore other = new TokenRevocationStore(repository, new SimpleMeterRegistry(), 60000);
+		other.init();
+
+		store.revoke("jti-1", new Date(System.currentTimeMillis() + 60000));
+
+		assertThat(store.isRevoked("jti-1")).isTrue();
+		assertThat(other.isRevoked("jti-1")).isFalse();
+		other.poll();
+		assertThat(other.isRevoked("jti-1")).isTrue();
+		assertThat(other.isRevoked("jti-2")).isFalse();
+	}
+
+	@Test
+	void revocationCommittedBelowAnIdAlreadySeenIsStillPickedUp() {
+		long base = repository.findMaxId() + 1000;
+
+		insert(base + 100, "late-2");
+		store.poll();
+		// Took its id first but committed after the poll above
+		insert(base + 50, "late-1");
+		store.poll();
+
+		assertThat(store.isRevoked("late-1")).isTrue();
+		assertThat(store.isRevoked("late-2")).isTrue();
+	}
+
+	private void insert(long id, String jti) {
+		entityManager.getEntityManager()
+				.createNativeQuery("INSERT INTO revoked_tokens (id, jti, expires_at, revoked_at) VALUES (?, ?, ?, ?)")
+				.setParameter(1, id)
+				.setParameter(2, jti)
+				.setParameter(3, LocalDateTime.now().plusHours(1))
+				.setParameter(4, LocalDateTime.now())
+				.executeUpdate();
+	}
+}
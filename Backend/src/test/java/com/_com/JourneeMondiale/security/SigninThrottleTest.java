@@ -0,0 +1,34 @@
+package com._com.JourneeMondiale.security;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SigninThrottleTest {
+
+	// Two attempts per IP, one per username, no refill within the test
+	private final SigninThrottle throttle = new SigninThrottle(new SimpleMeterRegistry(), 4, 100, 2, 1, 1, 1);
+
+	@Test
+	void attemptRejectedForTheUsernameDoesNotSpendTheIpBudget() {
+		throttle.acquire("alice", "10.0.0.1");
+
+		assertThatThrownBy(() -> throttle.acquire("Alice ", "10.0.0.1")).isInstanceOf(SigninRateLimitedException.class);
+
+		assertThatCode(() -> throttle.acquire("bob", "10.0.0.1")).doesNotThrowAnyException();
+		assertThatThrownBy(() -> throttle.acquire("carol", "10.0.0.1")).isInstanceOf(SigninRateLimitedException.class);
+	}
+
+	@Test
+	void attemptRejectedForTheIpDoesNotSpendTheUsernameBudget() {
+		throttle.acquire("alice", "10.0.0.1");
+		throttle.acquire("bob", "10.0.0.1");
+
+		assertThatThrownBy(() -> throttle.acquire("carol", "10.0.0.1")).isInstanceOf(SigninRateLimitedException.class);
+
+		assertThatCode(() -> throttle.acquire("carol", "10.0.0.2")).doesNotThrowAnyException();
+	}
+}
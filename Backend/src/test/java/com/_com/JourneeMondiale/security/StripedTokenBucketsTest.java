@@ -0,0 +1,72 @@
+package com._com.JourneeMondiale.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class StripedTokenBucketsTest {
+
+	@Test
+	void rejectsBurstBeyondCapacityAndRefillsOverTime() {
+		StripedTokenBuckets buckets = new StripedTokenBuckets(4, 100, 3, 60);
+		long now = 0;
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(buckets.tryAcquire("alice", now)).isZero();
+		}
+		long wait = buckets.tryAcquire("alice", now);
+		assertThat(wait).isBetween(1L, TimeUnit.SECONDS.toNanos(1));
+		// Other keys have their own budget
+		assertThat(buckets.tryAcquire("bob", now)).isZero();
+
+		assertThat(buckets.tryAcquire("alice", now + wait)).isZero();
+	}
+
+	@Test
+	void sprayedKeysNeverLockOutNewKeys() {
+		StripedTokenBuckets buckets = new StripedTokenBuckets(1, 2, 3, 3);
+
+		// Each sprayed key drains its whole budget before being evicted
+		for (int i = 0; i < 1000; i++) {
+			for (int attempt = 0; attempt < 3; attempt++) {
+				buckets.tryAcquire("spray" + i, 0);
+			}
+		}
+
+		// The stripe and its sketch are saturated, a new key still gets an attempt
+		assertThat(buckets.availableIn("alice", 0)).isZero();
+		assertThat(buckets.tryAcquire("alice", 0)).isZero();
+		assertThat(buckets.size()).isEqualTo(2);
+	}
+
+	@Test
+	void evictedKeyKeepsItsDebt() {
+		StripedTokenBuckets buckets = new StripedTokenBuckets(1, 2, 3, 3);
+		long minute = TimeUnit.MINUTES.toNanos(1);
+
+		for (int attempt = 0; attempt < 3; attempt++) {
+			assertThat(buckets.tryAcquire("victim", 0)).isZero();
+		}
+		// Pushes the victim out of the map
+		assertThat(buckets.tryAcquire("a", 0)).isZero();
+		assertThat(buckets.tryAcquire("b", 0)).isZero();
+
+		// Back with one token instead of three
+		assertThat(buckets.tryAcquire("victim", 0)).isZero();
+		assertThat(buckets.tryAcquire("victim", 0)).isPositive();
+		assertThat(buckets.tryAcquire("victim", minute)).isZero();
+	}
+
+	@Test
+	void givenBackTokenCanBeTakenAgain() {
+		StripedTokenBuckets buckets = new StripedTokenBuckets(4, 100, 1, 1);
+
+		assertThat(buckets.tryAcquire("alice", 0)).isZero();
+		buckets.giveBack("alice", 0);
+
+		assertThat(buckets.availableIn("alice", 0)).isZero();
+		assertThat(buckets.tryAcquire("alice", 0)).isZero();
+	}
+}
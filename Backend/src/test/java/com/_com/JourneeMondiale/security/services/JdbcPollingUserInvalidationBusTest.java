@@ -0,0 +1,79 @@
+package com._com.JourneeMondiale.security.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com._com.JourneeMondiale.repository.UserInvalidationRecordRepository;
+
+@DataJpaTest
+class JdbcPollingUserInvalidationBusTest {
+
+	@Autowired
+	private UserInvalidationRecordRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void invalidationReachesOtherNodeOnNextPoll() {
+		JdbcPollingUserInvalidationBus nodeA = new JdbcPollingUserInvalidationBus(repository, 3600000, 60000);
+		JdbcPollingUserInvalidationBus nodeB = new JdbcPollingUserInvalidationBus(repository, 3600000, 60000);
+		List<UserInvalidation> receivedByA = new ArrayList<>();
+		List<UserInvalidation> receivedByB = new ArrayList<>();
+		nodeA.subscribe(receivedByA::add);
+		nodeB.subscribe(receivedByB::add);
+
+		nodeA.publish(new UserInvalidation(42L, 3L, "alice", "alice@x.io", System.currentTimeMillis()));
+
+		// The publisher sees its own change at once, the other node only after polling
+		assertThat(receivedByA).extracting(UserInvalidation::userId).containsExactly(42L);
+		assertThat(receivedByB).isEmpty();
+
+		nodeB.poll();
+		nodeA.poll();
+
+		assertThat(receivedByB).singleElement().satisfies(invalidation -> {
+			assertThat(invalidation.userId()).isEqualTo(42L);
+			assertThat(invalidation.securityVersion()).isEqualTo(3L);
+			// Listeners such as the identity index need no user lookup
+			assertThat(invalidation.username()).isEqualTo("alice");
+			assertThat(invalidation.email()).isEqualTo("alice@x.io");
+		});
+		assertThat(receivedByA).hasSize(1);
+	}
+
+	@Test
+	void rowCommittedBelowAnIdAlreadySeenIsStillDelivered() {
+		JdbcPollingUserInvalidationBus node = new JdbcPollingUserInvalidationBus(repository, 3600000, 60000);
+		List<UserInvalidation> received = new ArrayList<>();
+		node.subscribe(received::add);
+		long base = repository.findMaxId() + 1000;
+
+		insert(base + 100, 7L);
+		node.poll();
+		// Took its id first but committed after the poll above
+		insert(base + 50, 8L);
+		node.poll();
+		node.poll();
+
+		assertThat(received).extracting(UserInvalidation::userId).containsExactly(7L, 8L);
+	}
+
+	private void insert(long id, long userId) {
+		entityManager.getEntityManager()
+				.createNativeQuery("INSERT INTO user_invalidations (id, user_id, security_version, origin_node, published_at) "
+						+ "VALUES (?, ?, 1, 'other-node', ?)")
+				.setParameter(1, id)
+				.setParameter(2, userId)
+				.setParameter(3, LocalDateTime.now())
+				.executeUpdate();
+	}
+}
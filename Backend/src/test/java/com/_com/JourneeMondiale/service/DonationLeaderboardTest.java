@@ -0,0 +1,117 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.repository.DonationRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "JourneeMondiale.app.leaderboard.size=3")
+@Import({DonationLeaderboard.class, DonationLeaderboardTest.Metrics.class})
+class DonationLeaderboardTest {
+
+	@TestConfiguration
+	static class Metrics {
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private DonationLeaderboard leaderboard;
+
+	@Autowired
+	private DonationRepository donationRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private double repairsBefore;
+
+	@BeforeEach
+	void setUp() {
+		for (String amount : new String[] {"10", "50", "30", "20", "40"}) {
+			save(amount, "succeeded");
+		}
+		save("500", "failed");
+		// The boards outlive the rolled back data of other tests
+		leaderboard.verify();
+		repairsBefore = meterRegistry.counter("donation.leaderboard.repairs").count();
+	}
+
+	@Test
+	void keepsTheLargestSucceededDonations() {
+		assertThat(amounts(null)).containsExactly(50, 40, 30);
+
+		Donation big = save("45", "succeeded");
+		leaderboard.onDonationChanged(created(big));
+		assertThat(amounts(null)).containsExactly(50, 45, 40);
+		assertThat(leaderboard.top(2, null)).hasSize(2);
+
+		leaderboard.onDonationChanged(created(save("1", "succeeded")));
+		assertThat(amounts(null)).containsExactly(50, 45, 40);
+	}
+
+	@Test
+	void reloadsWhenADonationLeavesAFullBoard() {
+		Donation top = donationRepository.findTopDonationsByAmount(PageRequest.of(0, 1)).get(0);
+		change(top, "5", "succeeded");
+		assertThat(amounts(null)).containsExactly(40, 30, 20);
+
+		Donation second = donationRepository.findTopDonationsByAmount(PageRequest.of(0, 1)).get(0);
+		change(second, "40", "failed");
+		assertThat(amounts(null)).containsExactly(30, 20, 10);
+		assertThat(amounts(YearMonth.now())).containsExactly(30, 20, 10);
+	}
+
+	@Test
+	void verifyRepairsBoardsThatMissedADonation() {
+		assertThat(amounts(YearMonth.now())).containsExactly(50, 40, 30);
+		// Recorded by another replica
+		save("60", "succeeded");
+
+		leaderboard.verify();
+
+		assertThat(amounts(null)).containsExactly(60, 50, 40);
+		assertThat(amounts(YearMonth.now())).containsExactly(60, 50, 40);
+		assertThat(meterRegistry.counter("donation.leaderboard.repairs").count() - repairsBefore).isEqualTo(2);
+		assertThat(amounts(YearMonth.now().minusMonths(1))).isEmpty();
+	}
+
+	private void change(Donation donation, String amount, String status) {
+		DonationRollupService.Contribution before = DonationRollupService.Contribution.of(donation);
+		donation.setAmount(new BigDecimal(amount));
+		donation.setStatus(status);
+		donationRepository.saveAndFlush(donation);
+		leaderboard.onDonationChanged(new DonationChangedEvent(donation, before, DonationRollupService.Contribution.of(donation)));
+	}
+
+	private List<Integer> amounts(YearMonth month) {
+		return leaderboard.top(10, month).stream().map(donation -> donation.getAmount().intValue()).toList();
+	}
+
+	private static DonationChangedEvent created(Donation donation) {
+		return new DonationChangedEvent(donation, null, DonationRollupService.Contribution.of(donation));
+	}
+
+	private Donation save(String amount, String status) {
+		Donation donation = new Donation("pi_" + amount + status, new BigDecimal(amount), "EUR", "Donor", "donor@x.io", null, status);
+		return donationRepository.save(donation);
+	}
+}
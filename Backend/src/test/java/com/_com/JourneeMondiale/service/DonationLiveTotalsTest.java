@@ -0,0 +1,88 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.repository.DonationRepository;
+import com._com.JourneeMondiale.repository.DonationRollupRepository;
+
+@DataJpaTest
+@Import({DonationRollupService.class, DonationLiveTotals.class})
+class DonationLiveTotalsTest {
+
+	@Autowired
+	private DonationLiveTotals liveTotals;
+
+	@Autowired
+	private DonationRollupService rollupService;
+
+	@Autowired
+	private DonationRepository donationRepository;
+
+	@Autowired
+	private DonationRollupRepository rollupRepository;
+
+	@AfterEach
+	void cleanUp() {
+		donationRepository.deleteAll();
+		rollupRepository.deleteAll();
+		if (TestTransaction.isActive()) {
+			TestTransaction.flagForCommit();
+			TestTransaction.end();
+		}
+		// Deleted behind the counters' back
+		liveTotals.resync();
+	}
+
+	@Test
+	void countsCommittedDonationsOnly() {
+		Donation pending = save("pi_1", "12.34", "pending");
+		save("pi_2", "5.00", "succeeded");
+		DonationRollupService.Contribution before = DonationRollupService.Contribution.of(pending);
+		pending.setStatus("succeeded");
+		rollupService.replace(before, donationRepository.save(pending));
+		liveTotals.snapshot();
+		assertThat(liveTotals.current().count()).isZero();
+
+		TestTransaction.flagForCommit();
+		TestTransaction.end();
+		liveTotals.snapshot();
+		assertThat(liveTotals.current().count()).isEqualTo(2);
+		assertThat(liveTotals.current().amount()).isEqualByComparingTo("17.34");
+
+		TestTransaction.start();
+		save("pi_3", "1.00", "succeeded");
+		TestTransaction.flagForRollback();
+		TestTransaction.end();
+		liveTotals.snapshot();
+		assertThat(liveTotals.current().count()).isEqualTo(2);
+	}
+
+	@Test
+	void resyncMatchesTheDonationsTable() {
+		// Written without the rollup service, as another replica would
+		donationRepository.save(new Donation("pi_1", new BigDecimal("7.10"), "EUR", "Donor", "donor@x.io", null, "succeeded"));
+		donationRepository.save(new Donation("pi_2", new BigDecimal("3.00"), "EUR", "Donor", "donor@x.io", null, "failed"));
+
+		liveTotals.resync();
+
+		assertThat(liveTotals.current().count()).isEqualTo(1);
+		assertThat(liveTotals.current().amount()).isEqualByComparingTo("7.10");
+	}
+
+	private Donation save(String paymentIntentId, String amount, String status) {
+		Donation donation = donationRepository.save(new Donation(paymentIntentId, new BigDecimal(amount), "EUR",
+				"Donor", "donor@x.io", null, status));
+		rollupService.add(donation);
+		return donation;
+	}
+}
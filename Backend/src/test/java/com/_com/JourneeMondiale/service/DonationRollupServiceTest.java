@@ -0,0 +1,87 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.payload.response.DonationStatistics;
+import com._com.JourneeMondiale.repository.DonationRepository;
+
+@DataJpaTest
+@Import(DonationRollupService.class)
+class DonationRollupServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+	@Autowired
+	private DonationRollupService rollupService;
+
+	@Autowired
+	private DonationRepository donationRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void writesAreAddedToTheRowOfTheirDay() {
+		Donation first = save("pi_1", "10.00", "succeeded");
+		save("pi_2", "2.50", "succeeded");
+		Donation failed = save("pi_3", "4.00", "failed");
+
+		DonationRollupService.Contribution before = DonationRollupService.Contribution.of(failed);
+		failed.setStatus("succeeded");
+		rollupService.replace(before, donationRepository.save(failed));
+		rollupService.replace(DonationRollupService.Contribution.of(first), first);
+
+		DonationStatistics stats = DonationStatistics.from(rollupService.totals());
+		assertThat(stats.succeededCount()).isEqualTo(3);
+		assertThat(stats.succeededAmount()).isEqualByComparingTo("16.50");
+		assertThat(stats.failedCount()).isZero();
+		assertThat(stats.failedAmount()).isEqualByComparingTo("0");
+	}
+
+	@Test
+	void rangesSumWholeDaysFromTheRollupAndReadOnlyTheEdges() {
+		// One donation every six hours over five days
+		for (int i = 0; i < 20; i++) {
+			Donation donation = save("pi_" + i, (i + 1) + ".00", i % 4 == 0 ? "failed" : "succeeded");
+			entityManager.getEntityManager().createQuery("UPDATE Donation d SET d.createdAt = :at WHERE d.id = :id")
+					.setParameter("at", DAY.atStartOfDay().plusHours(6L * i))
+					.setParameter("id", donation.getId())
+					.executeUpdate();
+		}
+		assertThat(rollupService.rebuild()).isEqualTo(10);
+
+		assertSameAsDonations(DAY.atTime(7, 0), DAY.plusDays(3).atTime(12, 0));
+		assertSameAsDonations(DAY.atStartOfDay(), DAY.plusDays(4).atTime(LocalTime.MAX));
+		assertSameAsDonations(DAY.atTime(3, 0), DAY.plusDays(1).atTime(13, 0));
+		assertSameAsDonations(DAY.plusDays(1).atStartOfDay(), DAY.plusDays(2).atStartOfDay());
+		assertThat(rollupService.totalsBetween(DAY.plusDays(1).atStartOfDay(), DAY.atStartOfDay())).isEmpty();
+	}
+
+	private void assertSameAsDonations(LocalDateTime start, LocalDateTime end) {
+		DonationStatistics expected = DonationStatistics.from(donationRepository.getTotalsByStatusBetween(start, end));
+		DonationStatistics actual = DonationStatistics.from(rollupService.totalsBetween(start, end));
+		assertThat(actual.succeededCount()).isEqualTo(expected.succeededCount()).isPositive();
+		assertThat(actual.succeededAmount()).isEqualByComparingTo(expected.succeededAmount());
+		assertThat(actual.failedCount()).isEqualTo(expected.failedCount());
+		assertThat(actual.failedAmount()).isEqualByComparingTo(expected.failedAmount());
+	}
+
+	private Donation save(String paymentIntentId, String amount, String status) {
+		Donation donation = donationRepository.save(new Donation(paymentIntentId, new BigDecimal(amount), "EUR",
+				"Donor", "donor@x.io", null, status));
+		rollupService.add(donation);
+		return donation;
+	}
+}
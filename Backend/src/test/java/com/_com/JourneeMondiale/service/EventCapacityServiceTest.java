@@ -0,0 +1,131 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.repository.EventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+// Every reservation commits in its own transaction, as it does in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventCapacityServiceTest {
+
+	@Autowired
+	private EventRepository eventRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void concurrentReservationsNeverOverbook() throws Exception {
+		Event event = eventRepository.save(new Event("Marathon", "42 km", "Paris",
+				LocalDateTime.now().plusDays(30), LocalDateTime.now().plusDays(20), 50, "MARATHON"));
+		EventCapacityService capacity = new EventCapacityService(eventRepository, new SimpleMeterRegistry());
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+		int attempts = 400;
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < attempts; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				try {
+					tx.executeWithoutResult(status -> capacity.reserve(event.getId()));
+					return true;
+				} catch (BusinessRuleException full) {
+					return false;
+				}
+			}));
+		}
+		start.countDown();
+		int reserved = 0;
+		for (Future<Boolean> result : results) {
+			if (result.get(30, TimeUnit.SECONDS)) {
+				reserved++;
+			}
+		}
+		pool.shutdown();
+
+		assertThat(reserved).isEqualTo(50);
+		assertThat(eventRepository.findById(event.getId()).orElseThrow().getCurrentParticipants()).isEqualTo(50);
+
+		// Cancelling gives exactly one seat back
+		tx.executeWithoutResult(status -> capacity.release(event.getId()));
+		tx.executeWithoutResult(status -> capacity.reserve(event.getId()));
+		assertThat(eventRepository.findById(event.getId()).orElseThrow().getCurrentParticipants()).isEqualTo(50);
+
+		eventRepository.deleteById(event.getId());
+	}
+
+	@Test
+	void groupReservationsTakeAllSeatsOrNone() {
+		Event event = eventRepository.save(new Event("Relais", "4 x 10 km", "Lyon",
+				LocalDateTime.now().plusDays(30), LocalDateTime.now().plusDays(20), 10, "RUN"));
+		EventCapacityService capacity = new EventCapacityService(eventRepository, new SimpleMeterRegistry());
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+		tx.executeWithoutResult(status -> capacity.reserve(event.getId(), 7));
+		assertThatThrownBy(() -> tx.executeWithoutResult(status -> capacity.reserve(event.getId(), 4)))
+				.isInstanceOf(BusinessRuleException.class)
+				.extracting("code").isEqualTo("event.not_enough_seats");
+		assertThat(eventRepository.findById(event.getId()).orElseThrow().getCurrentParticipants()).isEqualTo(7);
+
+		tx.executeWithoutResult(status -> capacity.reserve(event.getId(), 3));
+		assertThat(eventRepository.findById(event.getId()).orElseThrow().getCurrentParticipants()).isEqualTo(10);
+
+		eventRepository.deleteById(event.getId());
+	}
+
+	@Test
+	void onlyTheDatabaseMarksAnEventFullAndAnyReleaseClearsIt() {
+		Event event = eventRepository.save(new Event("Trail", "20 km", "Annecy",
+				LocalDateTime.now().plusDays(30), LocalDateTime.now().plusDays(20), 1, "TRAIL"));
+		EventCapacityService nodeA = new EventCapacityService(eventRepository, new SimpleMeterRegistry());
+		EventCapacityService nodeB = new EventCapacityService(eventRepository, new SimpleMeterRegistry());
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+		tx.executeWithoutResult(status -> nodeA.reserve(event.getId()));
+		// B has not asked the database yet, so it does not turn anyone away
+		nodeB.refresh();
+		nodeB.rejectIfKnownFull(event.getId());
+		assertThatThrownBy(() -> tx.executeWithoutResult(status -> nodeB.reserve(event.getId())))
+				.extracting("code").isEqualTo("event.full");
+		assertThatThrownBy(() -> nodeB.rejectIfKnownFull(event.getId())).isInstanceOf(BusinessRuleException.class);
+
+		// Released on the other replica: B only learns it on refresh
+		tx.executeWithoutResult(status -> nodeA.release(event.getId()));
+		nodeB.refresh();
+		tx.executeWithoutResult(status -> nodeB.reserve(event.getId()));
+
+		// Released on this replica: cleared at once
+		assertThatThrownBy(() -> tx.executeWithoutResult(status -> nodeA.reserve(event.getId())))
+				.extracting("code").isEqualTo("event.full");
+		tx.executeWithoutResult(status -> nodeA.release(event.getId()));
+		tx.executeWithoutResult(status -> nodeA.reserve(event.getId()));
+		assertThat(eventRepository.findById(event.getId()).orElseThrow().getCurrentParticipants()).isEqualTo(1);
+
+		eventRepository.deleteById(event.getId());
+	}
+}
@@ -0,0 +1,220 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.repository.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+class EventOccupancyStreamTest {
+
+	@Autowired
+	private EventRepository eventRepository;
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final CountDownLatch unblock = new CountDownLatch(1);
+
+	private EventOccupancyStream stream;
+
+	private Event first;
+
+	private Event second;
+
+	@BeforeEach
+	void setUp() {
+		// Two writer threads, four spares; a write blocked for 50 ms counts as stalled
+		stream = new EventOccupancyStream(eventRepository, new ObjectMapper(), meterRegistry, 60000, 100, 2, 50, 4);
+		first = eventRepository.save(new Event("Semi", "21 km", "Paris",
+				LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(5), 100, "RUN"));
+		second = eventRepository.save(new Event("10 km", "10 km", "Lyon",
+				LocalDateTime.now().plusDays(20), LocalDateTime.now().plusDays(15), 100, "RUN"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		unblock.countDown();
+		stream.stop();
+	}
+
+	@Test
+	void eachUpdateIsSerializedOnceAndFannedOutToTheEventsSubscribers() throws Exception {
+		RecordingEmitter onFirst = subscribe(false, first);
+		RecordingEmitter onBoth = subscribe(false, first, second);
+		RecordingEmitter onSecond = subscribe(false, second);
+		await(() -> onFirst.frames.size() == 1 && onBoth.frames.size() == 2 && onSecond.frames.size() == 1);
+
+		// Three registrations between two flushes make one update
+		setParticipants(first, 5);
+		for (int i = 0; i < 3; i++) {
+			stream.onEventChanged(new EventChangedEvent(first.getId(), EventChangedEvent.Kind.REGISTRATIONS));
+		}
+		stream.flush();
+
+		await(() -> onFirst.frames.size() == 2 && onBoth.frames.size() == 3);
+		assertThat(onFirst.frames.get(1)).contains("\"currentParticipants\":5");
+		assertThat(onBoth.frames.get(2)).isEqualTo(onFirst.frames.get(1));
+		stream.flush();
+		Thread.sleep(100);
+		assertThat(onFirst.frames).hasSize(2);
+		assertThat(onSecond.frames).hasSize(1);
+	}
+
+	@Test
+	void slowSubscriberOnlyGetsTheLatestFrameAndDoesNotHoldUpOthers() throws Exception {
+		RecordingEmitter slow = subscribe(true, first);
+		RecordingEmitter fast = subscribe(false, first);
+		await(() -> fast.frames.size() == 1);
+
+		for (int participants : new int[] {3, 4}) {
+			setParticipants(first, participants);
+			stream.onEventChanged(new EventChangedEvent(first.getId(), EventChangedEvent.Kind.REGISTRATIONS));
+			stream.flush();
+		}
+		await(() -> fast.frames.size() == 3);
+		assertThat(slow.frames).isEmpty();
+
+		unblock.countDown();
+		await(() -> slow.frames.size() == 2);
+		Thread.sleep(100);
+		assertThat(slow.frames).hasSize(2);
+		assertThat(slow.frames.get(1)).contains("\"currentParticipants\":4");
+	}
+
+	@Test
+	void subscriberStuckInAWriteIsClosed() throws Exception {
+		RecordingEmitter stuck = subscribe(true, first);
+		RecordingEmitter fast = subscribe(false, first);
+		await(() -> fast.frames.size() == 1);
+		Thread.sleep(100);
+
+		stream.closeStalled();
+
+		assertThat(meterRegistry.get("event.stream.stalled").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("event.stream.subscribers").gauge().value()).isEqualTo(1);
+		setParticipants(first, 7);
+		stream.onEventChanged(new EventChangedEvent(first.getId(), EventChangedEvent.Kind.REGISTRATIONS));
+		stream.flush();
+		await(() -> fast.frames.size() == 2);
+		// Completing now would wait on the stuck write, the writer does it when the write returns
+		assertThat(stuck.completed).isFalse();
+		unblock.countDown();
+		await(() -> stuck.completed);
+		// Only the write that was stuck went through
+		assertThat(stuck.frames).hasSize(1);
+		assertThat(fast.completed).isFalse();
+	}
+
+	@Test
+	void moreStalledSubscribersThanWriterThreadsDoNotStopDelivery() throws Exception {
+		List<RecordingEmitter> stuck = List.of(subscribe(true, first), subscribe(true, first), subscribe(true, first));
+		RecordingEmitter fast = subscribe(false, first);
+		// Both writer threads are stuck, the rest waits in the queue
+		Thread.sleep(100);
+		assertThat(fast.frames).isEmpty();
+
+		// Spares replace the stuck threads and reach the queued subscribers
+		stream.closeStalled();
+		await(() -> fast.frames.size() == 1);
+		Thread.sleep(100);
+		stream.closeStalled();
+		assertThat(meterRegistry.get("event.stream.stalled").counter().count()).isEqualTo(3);
+
+		setParticipants(first, 9);
+		stream.onEventChanged(new EventChangedEvent(first.getId(), EventChangedEvent.Kind.REGISTRATIONS));
+		stream.flush();
+		await(() -> fast.frames.size() == 2);
+
+		unblock.countDown();
+		await(() -> stuck.stream().allMatch(emitter -> emitter.completed));
+	}
+
+	@Test
+	void streamsAskProxiesNotToBuffer() {
+		SseEmitter emitter = stream.subscribe(List.of(first.getId()));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
+
+		((EventOccupancyStream.UnbufferedSseEmitter) emitter).extendResponse(outputMessage);
+		outputMessage.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+
+		assertThat(response.getHeader("X-Accel-Buffering")).isEqualTo("no");
+		assertThat(response.getHeader("Content-Type")).startsWith("text/event-stream");
+	}
+
+	private RecordingEmitter subscribe(boolean blocked, Event... events) {
+		RecordingEmitter emitter = new RecordingEmitter(blocked ? unblock : null);
+		stream.subscribe(Arrays.stream(events).map(Event::getId).toList(), emitter);
+		return emitter;
+	}
+
+	private void setParticipants(Event event, int participants) {
+		event.setCurrentParticipants(participants);
+		eventRepository.saveAndFlush(event);
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	// Stands in for the HTTP response; a gated one blocks every write like a client that stopped reading
+	private static final class RecordingEmitter extends SseEmitter {
+
+		private final List<String> frames = new CopyOnWriteArrayList<>();
+
+		private final CountDownLatch gate;
+
+		private volatile boolean completed;
+
+		RecordingEmitter(CountDownLatch gate) {
+			this.gate = gate;
+		}
+
+		@Override
+		public void send(Set<DataWithMediaType> items) throws IOException {
+			if (gate != null) {
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted", e);
+				}
+			}
+			frames.add(items.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()));
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			super.completeWithError(ex);
+			completed = true;
+		}
+	}
+}
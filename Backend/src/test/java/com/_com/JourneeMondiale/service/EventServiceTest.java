@@ -0,0 +1,222 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.model.EventRegistration;
+import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.payload.request.EventRegistrationRequest;
+import com._com.JourneeMondiale.payload.response.GroupRegistrationResponse;
+import com._com.JourneeMondiale.payload.response.GroupRegistrationResponse.Outcome;
+import com._com.JourneeMondiale.payload.response.GroupRegistrationResponse.ParticipantResult;
+import com._com.JourneeMondiale.repository.EventRegistrationRepository;
+import com._com.JourneeMondiale.repository.EventRepository;
+import com._com.JourneeMondiale.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@Import({ EventService.class, EventCapacityService.class, EventLifecycleService.class,
+		SimpleMeterRegistry.class, LocalValidatorFactoryBean.class })
+// Every call commits in its own transaction, as it does in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventServiceTest {
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private EventRepository eventRepository;
+
+	@Autowired
+	private EventRegistrationRepository registrationRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@AfterEach
+	void cleanUp() {
+		registrationRepository.deleteAll();
+		eventRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void concurrentCancellationsGiveOneSeatBack() throws Exception {
+		Event event = event(10);
+		User owner = user("cancel_owner");
+		User other = user("cancel_other");
+		EventRegistration registration = eventService.registerUserForEvent(event.getId(), owner.getId(), "Owner", "owner@x.io", null);
+		eventService.registerUserForEvent(event.getId(), other.getId(), "Other", "other@x.io", null);
+
+		runConcurrently(8, () -> {
+			eventService.cancelRegistration(registration.getId(), owner.getId());
+			return true;
+		});
+
+		assertThat(participants(event)).isEqualTo(1);
+		assertThat(registrationRepository.findById(registration.getId()).orElseThrow().getStatus())
+				.isEqualTo(EventRegistration.RegistrationStatus.CANCELLED);
+	}
+
+	@Test
+	void doubleSubmitRegistersOnce() throws Exception {
+		Event event = event(10);
+		User user = user("double_submit");
+
+		List<Boolean> results = runConcurrently(8, () -> {
+			try {
+				eventService.registerUserForEvent(event.getId(), user.getId(), "Twice", "twice@x.io", null);
+				return true;
+			} catch (BusinessRuleException duplicate) {
+				assertThat(duplicate.getCode()).isEqualTo("registration.duplicate");
+				return false;
+			}
+		});
+
+		assertThat(results).containsOnlyOnce(true);
+		assertThat(participants(event)).isEqualTo(1);
+		assertThat(registrationRepository.findByUserIdAndEventId(user.getId(), event.getId())).isPresent();
+	}
+
+	@Test
+	void groupRejectsFaultyParticipantsAndRegistersTheRestInOrder() {
+		Event event = event(5);
+		User other = user("group_other");
+		User leader = user("group_leader");
+		eventService.registerUserForEvent(event.getId(), other.getId(), "Taken", "taken@x.io", null);
+
+		GroupRegistrationResponse response = eventService.registerGroupForEvent(event.getId(), leader.getId(), List.of(
+				participant("Anna", "anna@x.io"),
+				participant(" ", "blank@x.io"),
+				participant("Bruno", "bruno@x.io"),
+				participant("Anna again", "ANNA@x.io"),
+				participant("Taken", "Taken@x.io"),
+				participant("Chloe", "chloe@x.io")));
+
+		assertThat(response.getRegistered()).isEqualTo(3);
+		assertThat(response.getGroupId()).isNotNull();
+		assertThat(response.getResults())
+				.extracting(ParticipantResult::getIndex, ParticipantResult::getOutcome, ParticipantResult::getCode)
+				.containsExactly(
+						tuple(0, Outcome.REGISTERED, null),
+						tuple(1, Outcome.REJECTED, "registration.invalid"),
+						tuple(2, Outcome.REGISTERED, null),
+						tuple(3, Outcome.REJECTED, "registration.duplicate_in_group"),
+						tuple(4, Outcome.REJECTED, "registration.duplicate"),
+						tuple(5, Outcome.REGISTERED, null));
+		assertThat(participants(event)).isEqualTo(4);
+
+		// Inserted in one batch, each under the id reported for its participant
+		List<EventRegistration> inserted = registrationRepository.findAll().stream()
+				.filter(registration -> response.getGroupId().equals(registration.getGroupId()))
+				.toList();
+		assertThat(inserted)
+				.extracting(EventRegistration::getId, EventRegistration::getParticipantEmail, EventRegistration::getStatus)
+				.containsExactlyInAnyOrder(
+						tuple(response.getResults().get(0).getRegistrationId(), "anna@x.io", EventRegistration.RegistrationStatus.CONFIRMED),
+						tuple(response.getResults().get(2).getRegistrationId(), "bruno@x.io", EventRegistration.RegistrationStatus.CONFIRMED),
+						tuple(response.getResults().get(5).getRegistrationId(), "chloe@x.io", EventRegistration.RegistrationStatus.CONFIRMED));
+	}
+
+	@Test
+	void groupLargerThanTheSeatsLeftTakesNone() {
+		Event event = event(3);
+		User other = user("seats_other");
+		User leader = user("seats_leader");
+		eventService.registerUserForEvent(event.getId(), other.getId(), "Taken", "taken@x.io", null);
+
+		assertThatThrownBy(() -> eventService.registerGroupForEvent(event.getId(), leader.getId(), List.of(
+				participant("Anna", "anna@x.io"),
+				participant("Bruno", "bruno@x.io"),
+				participant("Chloe", "chloe@x.io"))))
+				.isInstanceOf(BusinessRuleException.class)
+				.extracting("code").isEqualTo("event.not_enough_seats");
+
+		assertThat(participants(event)).isEqualTo(1);
+		assertThat(registrationRepository.findAll()).extracting(EventRegistration::getGroupId).containsOnlyNulls();
+
+		// Two seats are still there for a smaller group
+		GroupRegistrationResponse response = eventService.registerGroupForEvent(event.getId(), leader.getId(), List.of(
+				participant("Anna", "anna@x.io"),
+				participant("Bruno", "bruno@x.io")));
+		assertThat(response.getRegistered()).isEqualTo(2);
+		assertThat(participants(event)).isEqualTo(3);
+	}
+
+	@Test
+	void groupWithNobodyLeftTakesNoSeat() {
+		Event event = event(5);
+		User leader = user("nobody_leader");
+
+		GroupRegistrationResponse response = eventService.registerGroupForEvent(event.getId(), leader.getId(), List.of(
+				participant("", "anna@x.io"),
+				participant("Bruno", "not-an-email")));
+
+		assertThat(response.getGroupId()).isNull();
+		assertThat(response.getRegistered()).isZero();
+		assertThat(response.getResults()).extracting(ParticipantResult::getOutcome).containsOnly(Outcome.REJECTED);
+		assertThat(participants(event)).isZero();
+	}
+
+	private static EventRegistrationRequest participant(String name, String email) {
+		EventRegistrationRequest participant = new EventRegistrationRequest();
+		participant.setParticipantName(name);
+		participant.setParticipantEmail(email);
+		return participant;
+	}
+
+	private Event event(int maxParticipants) {
+		return eventRepository.save(new Event("Marathon", "42 km", "Paris",
+				LocalDateTime.now().plusDays(30), LocalDateTime.now().plusDays(20), maxParticipants, "MARATHON"));
+	}
+
+	private User user(String username) {
+		return userRepository.save(new User(username, username + "@x.io", "Test", "User", "secret", "USER"));
+	}
+
+	private int participants(Event event) {
+		return eventRepository.findById(event.getId()).orElseThrow().getCurrentParticipants();
+	}
+
+	private static <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<T>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				return task.call();
+			}));
+		}
+		start.countDown();
+		List<T> results = new ArrayList<>();
+		for (Future<T> future : futures) {
+			results.add(future.get(30, TimeUnit.SECONDS));
+		}
+		pool.shutdown();
+		return results;
+	}
+}
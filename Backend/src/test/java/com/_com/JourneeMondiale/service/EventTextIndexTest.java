@@ -0,0 +1,83 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import com._com.JourneeMondiale.dto.EventListingDTO;
+
+class EventTextIndexTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+	@Test
+	void matchesTyposPrefixesAndAccentsAndRanksNameAboveDescription() {
+		EventTextIndex index = new EventTextIndex();
+		index.put(event(1L, "Marathon de Paris", "Course sur route", "Paris", NOW.plusDays(30)));
+		index.put(event(2L, "Tournoi de basket", "Après le marathon, un match", "Lyon", NOW.plusDays(10)));
+		index.put(event(3L, "Fête de l'été", "Concert", "Orléans", NOW.plusDays(5)));
+
+		assertThat(ids(index, "marathon")).containsExactly(1L, 2L);
+		assertThat(ids(index, "marthon")).containsExactly(1L, 2L);
+		assertThat(ids(index, "pairs")).containsExactly(1L);
+		assertThat(ids(index, "bask")).containsExactly(2L);
+		assertThat(ids(index, "ORLEANS")).containsExactly(3L);
+		assertThat(ids(index, "fete ete")).containsExactly(3L);
+	}
+
+	@Test
+	void reindexingDropsOldTermsAndRemovalDropsEvent() {
+		EventTextIndex index = new EventTextIndex();
+		index.put(event(1L, "Marathon", "", "Paris", NOW.plusDays(30)));
+		index.put(event(1L, "Semi-marathon", "", "Nantes", NOW.plusDays(30)));
+
+		assertThat(ids(index, "paris")).isEmpty();
+		assertThat(ids(index, "nantes")).containsExactly(1L);
+
+		index.remove(1L);
+		assertThat(ids(index, "nantes")).isEmpty();
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void equalScoresRankUpcomingSoonestFirstThenPastMostRecentFirst() {
+		EventTextIndex index = new EventTextIndex();
+		index.put(event(1L, "Gala", "", "Paris", NOW.minusDays(20)));
+		index.put(event(2L, "Gala", "", "Paris", NOW.plusDays(20)));
+		index.put(event(3L, "Gala", "", "Paris", NOW.minusDays(2)));
+		index.put(event(4L, "Gala", "", "Paris", NOW.plusDays(2)));
+
+		assertThat(ids(index, "gala")).containsExactly(4L, 2L, 3L, 1L);
+	}
+
+	@Test
+	void editDistanceCountsTranspositionsAndStopsPastMax() {
+		assertThat(EventTextIndex.editDistance("paris", "pairs", 1)).isEqualTo(1);
+		assertThat(EventTextIndex.editDistance("marthon", "marathon", 1)).isEqualTo(1);
+		assertThat(EventTextIndex.editDistance("lyon", "nantes", 1)).isEqualTo(2);
+	}
+
+	private static List<Long> ids(EventTextIndex index, String query) {
+		return index.search(query, 10, NOW).stream().map(EventListingDTO::getId).toList();
+	}
+
+	@Test
+	void tokenizingDoesNotDependOnTheDefaultLocale() {
+		Locale previous = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr"));
+		try {
+			assertThat(EventTextIndex.tokenize("INSCRIPTION Île")).containsExactly("inscription", "ile");
+		} finally {
+			Locale.setDefault(previous);
+		}
+	}
+
+	private static EventListingDTO event(Long id, String name, String description, String location, LocalDateTime date) {
+		return new EventListingDTO(id, name, description, location, date, date.minusDays(1), 100, 0,
+			"RUN", true, NOW, null);
+	}
+}
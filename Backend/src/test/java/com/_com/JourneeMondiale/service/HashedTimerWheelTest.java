@@ -0,0 +1,55 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HashedTimerWheelTest {
+
+	// 10 ms ticks, 8 buckets: one turn of the wheel is 80 ms
+	private final HashedTimerWheel wheel = new HashedTimerWheel(10, 8, 0);
+
+	private final List<String> fired = new ArrayList<>();
+
+	@Test
+	void firesOnTheFirstTickAtOrAfterTheDeadline() {
+		wheel.schedule(25, () -> fired.add("a"));
+		wheel.advanceTo(29);
+		assertThat(fired).isEmpty();
+		wheel.advanceTo(30);
+		assertThat(fired).containsExactly("a");
+		assertThat(wheel.pendingCount()).isZero();
+	}
+
+	@Test
+	void deadlinesSeveralTurnsAwayWaitForTheirRound() {
+		wheel.schedule(250, () -> fired.add("far"));
+		wheel.schedule(90, () -> fired.add("next turn"));
+		wheel.advanceTo(240);
+		assertThat(fired).containsExactly("next turn");
+		wheel.advanceTo(250);
+		assertThat(fired).containsExactly("next turn", "far");
+	}
+
+	@Test
+	void overdueTimeoutsFireOnTheNextTick() {
+		wheel.advanceTo(100);
+		wheel.schedule(5, () -> fired.add("late"));
+		wheel.advanceTo(110);
+		assertThat(fired).containsExactly("late");
+	}
+
+	@Test
+	void cancelledTimeoutsNeverFire() {
+		HashedTimerWheel.Timeout timeout = wheel.schedule(20, () -> fired.add("cancelled"));
+		wheel.schedule(20, () -> fired.add("kept"));
+		timeout.cancel();
+		timeout.cancel();
+		assertThat(wheel.pendingCount()).isEqualTo(1);
+		wheel.advanceTo(100);
+		assertThat(fired).containsExactly("kept");
+	}
+}
@@ -0,0 +1,68 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.payload.response.RecentSupporter;
+
+class RecentDonationsTest {
+
+	// Never reloaded here, so no repository
+	private final RecentDonations recent = new RecentDonations(null, 3);
+
+	@Test
+	void keepsTheLatestSucceededDonationsNewestFirst() {
+		for (long id = 1; id <= 5; id++) {
+			succeed(donation(id, "Donor " + id, "pending"));
+		}
+		recent.onDonationChanged(created(donation(6L, "Failed Donor", "failed")));
+
+		assertThat(recent.latest(10, LocalDateTime.now().minusDays(30)))
+				.extracting(Donation::getId).containsExactly(5L, 4L, 3L);
+		assertThat(recent.latest(2, LocalDateTime.now().minusDays(30)))
+				.extracting(Donation::getId).containsExactly(5L, 4L);
+		assertThat(recent.latest(10, LocalDateTime.now().plusDays(1))).isEmpty();
+	}
+
+	@Test
+	void donationsThatStopSucceedingLeaveTheFeed() {
+		Donation donation = donation(1L, "Marie Dupont", "succeeded");
+		recent.onDonationChanged(created(donation));
+		succeed(donation(2L, "  ", "pending"));
+
+		DonationRollupService.Contribution before = DonationRollupService.Contribution.of(donation);
+		donation.setStatus("failed");
+		recent.onDonationChanged(new DonationChangedEvent(donation, before, DonationRollupService.Contribution.of(donation)));
+
+		assertThat(recent.supporters(10)).extracting(RecentSupporter::name).containsExactly("Anonyme");
+	}
+
+	@Test
+	void supportersOnlyShowAFirstNameAndAnInitial() {
+		assertThat(RecentDonations.anonymize("Marie Claire dupont")).isEqualTo("Marie D.");
+		assertThat(RecentDonations.anonymize("Cher")).isEqualTo("Cher");
+		assertThat(RecentDonations.anonymize(null)).isEqualTo("Anonyme");
+	}
+
+	private void succeed(Donation donation) {
+		DonationRollupService.Contribution before = DonationRollupService.Contribution.of(donation);
+		donation.setStatus("succeeded");
+		recent.onDonationChanged(new DonationChangedEvent(donation, before, DonationRollupService.Contribution.of(donation)));
+	}
+
+	private static DonationChangedEvent created(Donation donation) {
+		return new DonationChangedEvent(donation, null, DonationRollupService.Contribution.of(donation));
+	}
+
+	private static Donation donation(Long id, String donorName, String status) {
+		Donation donation = new Donation("pi_" + id, new BigDecimal("10.00"), "EUR", donorName, "donor@x.io", null, status);
+		donation.setId(id);
+		donation.setCreatedAt(LocalDateTime.now());
+		return donation;
+	}
+}
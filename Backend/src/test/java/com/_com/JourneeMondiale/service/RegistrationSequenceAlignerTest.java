@@ -0,0 +1,69 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com._com.JourneeMondiale.model.Event;
+import com._com.JourneeMondiale.model.EventRegistration;
+import com._com.JourneeMondiale.model.User;
+import com._com.JourneeMondiale.repository.EventRegistrationRepository;
+import com._com.JourneeMondiale.repository.EventRepository;
+import com._com.JourneeMondiale.repository.UserRepository;
+
+@DataJpaTest
+@Import(RegistrationSequenceAligner.class)
+// ALTER SEQUENCE commits on H2, so nothing here runs in a rolled back test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RegistrationSequenceAlignerTest {
+
+	@Autowired
+	private RegistrationSequenceAligner aligner;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EventRepository eventRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EventRegistrationRepository registrationRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void sequenceIsMovedPastIdsLeftByTheIdentityColumn() {
+		User user = userRepository.save(new User("seq_runner", "seq@x.io", "Se", "Quence", "hash", "user"));
+		Event event = eventRepository.save(new Event("Cross", "8 km", "Lille",
+				LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(5), 100, "RUN"));
+		long legacyId = 100_000;
+		// A row written back when ids came from the IDENTITY column
+		jdbcTemplate.update("INSERT INTO event_registrations (id, event_id, user_id, participant_name, participant_email, "
+				+ "registration_date, status) VALUES (?, ?, ?, 'Legacy', 'legacy@x.io', ?, 'CONFIRMED')",
+				legacyId, event.getId(), user.getId(), LocalDateTime.now());
+
+		aligner.align();
+		EventRegistration created = new TransactionTemplate(transactionManager).execute(status ->
+				registrationRepository.save(new EventRegistration(event, user, "New", "new@x.io")));
+
+		assertThat(created.getId()).isGreaterThan(legacyId);
+
+		registrationRepository.deleteAll();
+		eventRepository.delete(event);
+		userRepository.delete(user);
+	}
+}
@@ -0,0 +1,76 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com._com.JourneeMondiale.model.Donation;
+import com._com.JourneeMondiale.payload.response.DonationStatistics;
+import com._com.JourneeMondiale.repository.DonationRepository;
+import com.stripe.model.PaymentIntent;
+
+@SpringBootTest
+class StripeServiceTest {
+
+	@Autowired
+	private StripeService stripeService;
+
+	@Autowired
+	private DonationRollupService rollupService;
+
+	@Autowired
+	private DonationRepository donationRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void concurrentConfirmationsMoveTheRollupOnce() throws Exception {
+		Donation pending = new Donation("pi_concurrent", new BigDecimal("25.00"), "EUR", "Donor", "donor@x.io", null, "pending");
+		transactionTemplate.executeWithoutResult(status -> rollupService.add(donationRepository.save(pending)));
+		DonationStatistics before = DonationStatistics.from(rollupService.totals());
+
+		PaymentIntent intent = new PaymentIntent();
+		intent.setId("pi_concurrent");
+		intent.setAmount(2500L);
+		intent.setCurrency("eur");
+		intent.setMetadata(Map.of("customerName", "Donor", "customerEmail", "donor@x.io"));
+		// The confirm endpoint and the webhook can both report the same payment
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> confirmations = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			confirmations.add(pool.submit(() -> {
+				start.await();
+				stripeService.saveDonation(intent);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> confirmation : confirmations) {
+			confirmation.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		DonationStatistics after = DonationStatistics.from(rollupService.totals());
+		assertThat(after.succeededCount() - before.succeededCount()).isEqualTo(1);
+		assertThat(after.succeededAmount().subtract(before.succeededAmount())).isEqualByComparingTo("25.00");
+		assertThat(before.pendingCount() - after.pendingCount()).isEqualTo(1);
+
+		donationRepository.delete(donationRepository.findByPaymentIntentId("pi_concurrent").orElseThrow());
+		rollupService.rebuild();
+	}
+}
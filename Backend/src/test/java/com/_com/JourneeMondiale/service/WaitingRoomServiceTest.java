@@ -0,0 +1,103 @@
+package com._com.JourneeMondiale.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com._com.JourneeMondiale.exception.BusinessRuleException;
+import com._com.JourneeMondiale.payload.response.QueueStatusResponse;
+import com._com.JourneeMondiale.security.Jwt.QueueTicketSigner;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WaitingRoomServiceTest {
+
+	private static final long EVENT = 1L;
+
+	private final QueueTicketSigner signer = signer();
+
+	// One admission per second
+	private final WaitingRoomService room = room(true);
+
+	@Test
+	void joinersGetSuccessivePlacesAndKeepTheirOwn() {
+		QueueStatusResponse first = room.join(EVENT, 10L);
+		QueueStatusResponse second = room.join(EVENT, 20L);
+
+		assertThat(first.getPosition()).isEqualTo(1L);
+		assertThat(second.getPosition()).isEqualTo(2L);
+		assertThat(second.getAdmitted()).isFalse();
+		assertThat(room.join(EVENT, 10L).getPosition()).isEqualTo(1L);
+		assertThat(room.position(EVENT, second.getTicket()).getPosition()).isEqualTo(2L);
+	}
+
+	@Test
+	void queueAdvancesAtTheConfiguredRate() {
+		String first = room.join(EVENT, 10L).getTicket();
+		String second = room.join(EVENT, 20L).getTicket();
+
+		assertNotAdmitted(() -> room.checkAdmitted(EVENT, 10L, first));
+
+		tick(1.5);
+		assertThatCode(() -> room.checkAdmitted(EVENT, 10L, first)).doesNotThrowAnyException();
+		assertThat(room.position(EVENT, first).getAdmitted()).isTrue();
+		assertNotAdmitted(() -> room.checkAdmitted(EVENT, 20L, second));
+		assertThat(room.position(EVENT, second).getPosition()).isEqualTo(1L);
+	}
+
+	@Test
+	void ticketsOnlyWorkForTheirUserEventAndQueue() {
+		String ticket = room.join(EVENT, 10L).getTicket();
+		tick(1.5);
+
+		assertTicketRequired(() -> room.checkAdmitted(EVENT, 20L, ticket));
+		assertTicketRequired(() -> room.checkAdmitted(2L, 10L, ticket));
+		assertTicketRequired(() -> room.checkAdmitted(EVENT, 10L, null));
+		assertTicketRequired(() -> room.checkAdmitted(EVENT, 10L, "not-a-ticket"));
+
+		// Another replica, or this one after a restart, has no queue for the ticket
+		WaitingRoomService otherNode = room(true);
+		assertTicketRequired(() -> otherNode.checkAdmitted(EVENT, 10L, ticket));
+		assertTicketRequired(() -> otherNode.position(EVENT, ticket));
+		// Nor once it has a queue of its own for the event
+		otherNode.join(EVENT, 30L);
+		assertTicketRequired(() -> otherNode.checkAdmitted(EVENT, 10L, ticket));
+	}
+
+	@Test
+	void disabledRoomLetsEveryoneThrough() {
+		assertThatCode(() -> room(false).checkAdmitted(EVENT, 10L, null)).doesNotThrowAnyException();
+	}
+
+	private void tick(double seconds) {
+		room.advance(System.nanoTime() + (long) (seconds * TimeUnit.SECONDS.toNanos(1)), System.currentTimeMillis());
+	}
+
+	private WaitingRoomService room(boolean enabled) {
+		return new WaitingRoomService(signer, new SimpleMeterRegistry(), enabled, 1, 60000);
+	}
+
+	private static void assertNotAdmitted(Runnable check) {
+		assertThatThrownBy(check::run).isInstanceOf(BusinessRuleException.class)
+				.extracting("code").isEqualTo("queue.not_admitted");
+	}
+
+	private static void assertTicketRequired(Runnable check) {
+		assertThatThrownBy(check::run).isInstanceOf(BusinessRuleException.class)
+				.extracting("code").isEqualTo("queue.ticket_required");
+	}
+
+	private static QueueTicketSigner signer() {
+		QueueTicketSigner signer = new QueueTicketSigner();
+		ReflectionTestUtils.setField(signer, "jwtSecret",
+				Base64.getEncoder().encodeToString("a-test-secret-long-enough-for-hmac-sha-256-keys".getBytes()));
+		signer.init();
+		return signer;
+	}
+}